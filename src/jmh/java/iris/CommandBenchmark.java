@@ -0,0 +1,67 @@
+package iris;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks parsing a command line into a Command and dispatching it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandBenchmark {
+    @Param({
+        "todo read book",
+        "deadline complete assignment /by 2025-09-30",
+        "event club meeting /from 2025-10-10 /to 2025-10-12",
+        "doafter return library book /after 2025-10-05"
+    })
+    private String addCommand;
+
+    private Iris iris;
+
+    /**
+     * Starts every measurement iteration from a fresh list with a single task to mark and unmark,
+     * so the tasks added by {@code dispatchAdd} do not carry over into later iterations.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        iris = new Iris();
+        iris.processCommand("todo read book");
+    }
+
+    @Benchmark
+    public Command construct() {
+        return new Command(addCommand);
+    }
+
+    @Benchmark
+    public String dispatchAdd() {
+        return iris.processCommand(addCommand);
+    }
+
+    @Benchmark
+    public String dispatchMark() {
+        return iris.processCommand("mark 1");
+    }
+
+    @Benchmark
+    public String dispatchInvalid() {
+        return iris.processCommand("unknown command");
+    }
+}
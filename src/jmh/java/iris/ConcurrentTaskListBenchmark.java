@@ -0,0 +1,103 @@
+package iris;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import iris.task.Task;
+import iris.task.TaskList;
+import iris.task.TaskQuery;
+import iris.task.Todo;
+
+/**
+ * Benchmarks readers sharing a task list with a writer that keeps adding and removing tasks.
+ * The groups differ only in their number of reader threads, so comparing their reader
+ * throughput shows how reads scale while mutations are going on.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentTaskListBenchmark {
+    private static final int SIZE = 100_000;
+    private static final TaskQuery BOOK = new TaskQuery(List.of("book"), false, false);
+
+    private TaskList taskList;
+
+    /**
+     * Fills the list with todos, one in a hundred mentioning "book".
+     */
+    @Setup
+    public void setUp() {
+        taskList = new TaskList();
+        for (int i = 0; i < SIZE; i++) {
+            taskList.add(new Todo((i % 100 == 0 ? "read book " : "task ") + i));
+        }
+    }
+
+    private void write() {
+        taskList.add(new Todo("write book"));
+        taskList.remove(taskList.size() - 1);
+    }
+
+    private Task read() {
+        return taskList.get(ThreadLocalRandom.current().nextInt(SIZE));
+    }
+
+    @Benchmark
+    @Group("oneReader")
+    @GroupThreads(1)
+    public void oneReaderWrite() {
+        write();
+    }
+
+    @Benchmark
+    @Group("oneReader")
+    @GroupThreads(1)
+    public Task oneReaderRead() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("fourReaders")
+    @GroupThreads(1)
+    public void fourReadersWrite() {
+        write();
+    }
+
+    @Benchmark
+    @Group("fourReaders")
+    @GroupThreads(4)
+    public Task fourReadersRead() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("fourSearchers")
+    @GroupThreads(1)
+    public void fourSearchersWrite() {
+        write();
+    }
+
+    @Benchmark
+    @Group("fourSearchers")
+    @GroupThreads(4)
+    public int fourSearchersFind() {
+        return taskList.search(BOOK, Integer.MAX_VALUE).size();
+    }
+}
@@ -0,0 +1,71 @@
+package iris;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a full load and save round trip through a data file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class StorageBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    private Path directory;
+    private String dataFile;
+
+    /**
+     * Writes a data file with the requested number of tasks.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("iris-bench");
+        dataFile = directory.resolve("data.txt").toString();
+        Iris iris = new Iris();
+        for (int i = 0; i < size; i++) {
+            iris.processCommand("deadline task " + i + " /by 2025-09-30");
+        }
+        iris.save(dataFile);
+    }
+
+    /**
+     * Deletes the data file and everything written next to it.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public Iris loadAndSave() {
+        Iris iris = new Iris();
+        iris.load(dataFile);
+        iris.save(dataFile);
+        return iris;
+    }
+}
@@ -0,0 +1,69 @@
+package iris;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks listing and searching task lists of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class TaskListBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private Iris iris;
+
+    /**
+     * Fills the list with a mix of all task types, one in a hundred mentioning "book".
+     */
+    @Setup
+    public void setUp() {
+        iris = new Iris();
+        for (int i = 0; i < size; i++) {
+            String description = (i % 100 == 0 ? "read book " : "task ") + i;
+            switch (i % 4) {
+            case 0 -> iris.processCommand("todo " + description);
+            case 1 -> iris.processCommand("deadline " + description + " /by 2025-09-30");
+            case 2 -> iris.processCommand("event " + description + " /from 2025-10-10 /to 2025-10-12");
+            default -> iris.processCommand("doafter " + description + " /after 2025-10-05");
+            }
+        }
+    }
+
+    /**
+     * Shows the first page, which costs the same however long the list is.
+     */
+    @Benchmark
+    public String listFirstPage() {
+        return iris.processCommand("list");
+    }
+
+    /**
+     * Shows every task on a single page.
+     */
+    @Benchmark
+    public String listAll() {
+        return iris.processCommand("list /limit " + size);
+    }
+
+    @Benchmark
+    public String find() {
+        return iris.processCommand("find book");
+    }
+}
@@ -0,0 +1,65 @@
+package iris;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import iris.task.Task;
+
+/**
+ * Benchmarks serializing and deserializing each task type, with and without the cached line.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskSerializationBenchmark {
+    @Param({
+        "TODO|false|read book",
+        "DEADLINE|true|complete assignment|Sep 30 2025",
+        "EVENT|false|club meeting|Oct 10 2025|Oct 12 2025",
+        "DOAFTER|false|return library book|Oct 5 2025"
+    })
+    private String line;
+
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        task = Task.deserialize(line);
+    }
+
+    /**
+     * Renders the line afresh on every call; flipping the completion status clears the cached line.
+     */
+    @Benchmark
+    public String serialize() {
+        task.setDone(!task.isDone());
+        return task.serialize();
+    }
+
+    /**
+     * Returns the line cached by the previous call, as saving an unchanged task does.
+     */
+    @Benchmark
+    public String serializeCached() {
+        return task.serialize();
+    }
+
+    @Benchmark
+    public Task deserialize() {
+        return Task.deserialize(line);
+    }
+}
@@ -0,0 +1,103 @@
+package iris;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Headless entry point that runs commands from standard input or a file without JavaFX.
+ * Usage: {@code iris.Cli [--data <file>] [--timing] [<command-file>]}
+ */
+public class Cli {
+    private static final String SEPARATOR = "-------------------------------------";
+    private static final String DEFAULT_DATA_FILE = "data.txt";
+
+    private final Iris iris = new Iris();
+    private final PrintStream out;
+    private final PrintStream err;
+    private final boolean isTiming;
+    private long commandCount;
+    private long totalNanos;
+
+    Cli(PrintStream out, PrintStream err, boolean isTiming) {
+        this.out = out;
+        this.err = err;
+        this.isTiming = isTiming;
+    }
+
+    /**
+     * Runs the commands and prints the responses to standard output.
+     * With {@code --timing}, per-command latency and throughput go to standard error.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) throws IOException {
+        String dataFile = DEFAULT_DATA_FILE;
+        String commandFile = null;
+        boolean isTiming = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--timing" -> isTiming = true;
+            case "--data" -> dataFile = args[++i];
+            default -> commandFile = args[i];
+            }
+        }
+        Cli cli = new Cli(System.out, System.err, isTiming);
+        try (BufferedReader reader = commandFile == null
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(commandFile), StandardCharsets.UTF_8)) {
+            cli.run(reader, dataFile);
+        }
+    }
+
+    /**
+     * Loads the data file, runs every command until "bye" or the end of input, then saves.
+     *
+     * @param reader   source of commands, one per line
+     * @param dataFile file the tasks are loaded from and saved to
+     * @throws IOException if the commands cannot be read
+     */
+    void run(BufferedReader reader, String dataFile) throws IOException {
+        err.print(iris.load(dataFile));
+        iris.startMetricsDump();
+        out.println(iris.getPreamble());
+        out.println(SEPARATOR);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            out.println(execute(line).stripTrailing());
+            out.println(SEPARATOR);
+            if (line.equals("bye")) {
+                break;
+            }
+        }
+        iris.save(dataFile);
+        if (isTiming) {
+            printSummary();
+        }
+    }
+
+    private String execute(String line) {
+        long start = System.nanoTime();
+        String response = iris.processCommand(line);
+        long elapsed = System.nanoTime() - start;
+        commandCount++;
+        totalNanos += elapsed;
+        if (isTiming) {
+            err.printf("[%10.3f ms] %s%n", elapsed / 1e6, line);
+        }
+        return response;
+    }
+
+    private void printSummary() {
+        double seconds = totalNanos / 1e9;
+        double opsPerSecond = seconds > 0 ? commandCount / seconds : 0;
+        err.printf("%d commands in %.3f ms (%.0f ops/sec)%n", commandCount, totalNanos / 1e6, opsPerSecond);
+    }
+}
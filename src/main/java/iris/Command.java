@@ -1,12 +1,30 @@
 package iris;
 
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
+import iris.metrics.CommandEvent;
+import iris.storage.ListRegistry;
+import iris.storage.StoredList;
+import iris.storage.TaskLoader;
+import iris.storage.TaskWriter;
+import iris.task.CompletionTrie;
 import iris.task.Deadline;
 import iris.task.DoAfter;
 import iris.task.Event;
 import iris.task.Task;
+import iris.task.TaskList;
+import iris.task.TaskOrder;
+import iris.task.TaskQuery;
 import iris.task.Todo;
 
 /**
@@ -14,18 +32,46 @@ import iris.task.Todo;
  */
 public class Command {
     // Map of command keywords to their corresponding types to avoid magic strings
-    private static final Map<String, CommandType> COMMANDS = Map.of(
-            "list", CommandType.LIST,
-            "bye", CommandType.BYE,
-            "find", CommandType.FIND,
-            "delete", CommandType.DELETE,
-            "mark", CommandType.MARK,
-            "unmark", CommandType.UNMARK,
-            "todo", CommandType.ADD_TODO,
-            "deadline", CommandType.ADD_DEADLINE,
-            "event", CommandType.ADD_EVENT,
-            "doafter", CommandType.ADD_DO_AFTER
+    private static final Map<String, CommandType> COMMANDS = Map.ofEntries(
+            Map.entry("list", CommandType.LIST),
+            Map.entry("more", CommandType.MORE),
+            Map.entry("import", CommandType.IMPORT),
+            Map.entry("export", CommandType.EXPORT),
+            Map.entry("use", CommandType.USE),
+            Map.entry("lists", CommandType.LISTS),
+            Map.entry("stats", CommandType.STATS),
+            Map.entry("bye", CommandType.BYE),
+            Map.entry("find", CommandType.FIND),
+            Map.entry("due", CommandType.DUE),
+            Map.entry("between", CommandType.BETWEEN),
+            Map.entry("overdue", CommandType.OVERDUE),
+            Map.entry("delete", CommandType.DELETE),
+            Map.entry("mark", CommandType.MARK),
+            Map.entry("unmark", CommandType.UNMARK),
+            Map.entry("todo", CommandType.ADD_TODO),
+            Map.entry("deadline", CommandType.ADD_DEADLINE),
+            Map.entry("event", CommandType.ADD_EVENT),
+            Map.entry("doafter", CommandType.ADD_DO_AFTER)
     );
+    private static final CompletionTrie KEYWORDS = new CompletionTrie();
+
+    static {
+        COMMANDS.keySet().forEach(KEYWORDS::add);
+    }
+
+    private static final String FLAG_WORD = "/word";
+    // Find tasks holding any of the keywords instead of all of them
+    private static final String FLAG_ANY = "/any";
+    // Match the case of the keywords instead of ignoring it
+    private static final String FLAG_CASE = "/case";
+    private static final String SELECT_DONE = "done";
+    private static final String ID_PREFIX = "#";
+    private static final String SELECTION_HINT = "where <selection> is e.g. 3-500, 1,4,9-20, #42 or done";
+    private static final String FLAG_LIMIT = "/limit";
+    private static final String FLAG_OFFSET = "/offset";
+    private static final String FLAG_SORT = "/sort";
+    // Number of tasks shown per page unless a limit is given
+    private static final int DEFAULT_PAGE_SIZE = 100;
 
     private final CommandType type;
     private final String maybeArgument;
@@ -42,27 +88,62 @@ public class Command {
         this.type = COMMANDS.getOrDefault(command, CommandType.INVALID);
     }
 
+    /**
+     * Returns the command keywords that start with the given prefix, in alphabetical order.
+     *
+     * @param prefix prefix to complete
+     * @param limit  maximum number of keywords, at most {@link CompletionTrie#MAX_SUGGESTIONS}
+     * @return matching keywords
+     */
+    static List<String> completeKeyword(String prefix, int limit) {
+        return KEYWORDS.complete(prefix, limit);
+    }
+
+    public CommandType getType() {
+        return type;
+    }
+
     public String getMaybeArgument() {
         return maybeArgument;
     }
 
     /**
      * Executes the command on the given Iris instance.
+     * The execution shows up as a {@link CommandEvent} in flight recordings.
      *
      * @param iris Iris instance
      * @return Result of command execution
      */
     public String execute(Iris iris) {
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        try {
+            return dispatch(iris);
+        } finally {
+            CommandEvent.commit(event, type.name(), maybeArgument == null ? 0 : maybeArgument.length());
+        }
+    }
+
+    private String dispatch(Iris iris) {
         String arg = getMaybeArgument();
-        List<Task> taskList = iris.getTaskList();
+        TaskList taskList = iris.getTaskList();
         return switch (type) {
         case ADD_TODO -> handleAddTodo(taskList, arg);
         case ADD_EVENT -> handleAddEvent(taskList, arg);
         case ADD_DEADLINE -> handleAddDeadline(taskList, arg);
         case ADD_DO_AFTER -> handleAddDoAfter(taskList, arg);
-        case FIND -> handleFind(taskList, arg);
+        case FIND -> handleFind(iris, taskList, arg);
+        case DUE -> handleDue(iris, taskList, arg);
+        case BETWEEN -> handleBetween(iris, taskList, arg);
+        case OVERDUE -> handleOverdue(iris, taskList);
         case DELETE -> handleDelete(taskList, arg);
-        case LIST -> handleList(taskList);
+        case LIST -> handleList(iris, taskList, arg);
+        case MORE -> handleMore(iris);
+        case IMPORT -> handleImport(taskList, arg);
+        case EXPORT -> handleExport(taskList, arg);
+        case USE -> handleUse(iris, arg);
+        case LISTS -> handleLists(iris);
+        case STATS -> iris.getMetrics().report();
         case MARK -> handleMark(taskList, arg);
         case UNMARK -> handleUnmark(taskList, arg);
         case BYE -> "Bye, see you soon!";
@@ -76,96 +157,358 @@ public class Command {
                 + String.format("Usage: %s\n", usage);
     }
 
-    private String handleAddTodo(List<Task> taskList, String arg) {
+    private static String addTask(TaskList taskList, Task task) {
+        taskList.add(task);
+        return String.format("Added new iris.task (#%d):\n%s", task.getId(), task);
+    }
+
+    private String handleAddTodo(TaskList taskList, String arg) {
         try {
             Task task = Todo.generateTodo(arg);
-            taskList.add(task);
-            return "Added new iris.task:\n" + task;
+            return addTask(taskList, task);
         } catch (Exception exception) {
             return getUsageHint("todo", "todo <description>");
         }
     }
 
-    private String handleAddEvent(List<Task> taskList, String arg) {
+    private String handleAddEvent(TaskList taskList, String arg) {
         try {
             Task task = Event.generateEvent(arg);
-            taskList.add(task);
-            return "Added new iris.task:\n" + task;
+            return addTask(taskList, task);
         } catch (Exception exception) {
             return getUsageHint("event", "event <description> /from <date> /to <date>");
         }
     }
 
-    private String handleAddDeadline(List<Task> taskList, String arg) {
+    private String handleAddDeadline(TaskList taskList, String arg) {
         try {
             Task task = Deadline.generateDeadline(arg);
-            taskList.add(task);
-            return "Added new iris.task:\n" + task;
+            return addTask(taskList, task);
         } catch (Exception exception) {
             return getUsageHint("deadline", "deadline <description> /by <date>");
         }
     }
 
-    private String handleAddDoAfter(List<Task> taskList, String arg) {
+    private String handleAddDoAfter(TaskList taskList, String arg) {
         try {
             Task task = DoAfter.generateDoAfter(arg);
-            taskList.add(task);
-            return "Added new iris.task:\n" + task;
+            return addTask(taskList, task);
         } catch (Exception exception) {
             return getUsageHint("doafter", "doafter <description> /after <date>");
         }
     }
 
-    private String handleFind(List<Task> taskList, String keyword) {
-        StringBuilder result = new StringBuilder();
-        result.append("Here are the matching tasks in your list:\n");
-        for (int i = 0; i < taskList.size(); i++) {
-            Task task = taskList.get(i);
-            if (task.getDescription().contains(keyword)) {
-                result.append(String.format("%d: %s\n", i + 1, task));
-                result.append("\n");
+    private String handleFind(Iris iris, TaskList taskList, String arg) {
+        String usage = "find <keyword>... [/any] [/case] [/limit <count>] OR find /word <word>";
+        if (arg == null || arg.isBlank()) {
+            return getUsageHint("find", usage);
+        }
+        String header = "Here are the matching tasks in your list:\n";
+        if (arg.startsWith(FLAG_WORD + " ")) {
+            String word = arg.substring(FLAG_WORD.length() + 1).trim();
+            return showMatches(iris, taskList, header, () -> taskList.findWord(word));
+        }
+        List<String> keywords = new ArrayList<>();
+        boolean isAnyKeyword = false;
+        boolean isCaseSensitive = false;
+        int limit = Integer.MAX_VALUE;
+        try {
+            String[] args = arg.trim().split("\\s+");
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                case FLAG_ANY -> isAnyKeyword = true;
+                case FLAG_CASE -> isCaseSensitive = true;
+                case FLAG_LIMIT -> limit = Integer.parseInt(args[++i]);
+                default -> keywords.add(args[i]);
+                }
+            }
+            if (keywords.isEmpty() || limit < 1) {
+                throw new NumberFormatException();
             }
+        } catch (RuntimeException exception) {
+            return getUsageHint("find", usage);
+        }
+        TaskQuery query = new TaskQuery(keywords, isAnyKeyword, isCaseSensitive);
+        int count = limit;
+        return showMatches(iris, taskList, header, () -> taskList.search(query, count));
+    }
+
+    private String handleDue(Iris iris, TaskList taskList, String arg) {
+        try {
+            LocalDate date = LocalDate.parse(arg.trim(), Task.DATE_INPUT);
+            return showMatches(iris, taskList, "Here are the tasks on " + date.format(Task.DATE_STORAGE) + ":\n", () ->
+                    taskList.findDue(date));
+        } catch (Exception exception) {
+            return getUsageHint("due", "due <date>");
         }
-        return result.toString();
     }
 
-    private String handleDelete(List<Task> taskList, String arg) {
+    private String handleBetween(Iris iris, TaskList taskList, String arg) {
         try {
-            int listNumber = Integer.parseInt(arg);
-            Task removed = taskList.remove(listNumber - 1);
-            return "I've deleted this iris.task:\n" + removed
-                    + String.format("\nYou have %d tasks left.\n", taskList.size());
+            String[] dates = arg.trim().split("\\s+");
+            if (dates.length != 2) {
+                return getUsageHint("between", "between <from-date> <to-date>");
+            }
+            LocalDate from = LocalDate.parse(dates[0], Task.DATE_INPUT);
+            LocalDate to = LocalDate.parse(dates[1], Task.DATE_INPUT);
+            if (to.isBefore(from)) {
+                return getUsageHint("between", "between <from-date> <to-date>");
+            }
+            String header = String.format("Here are the tasks between %s and %s:\n",
+                    from.format(Task.DATE_STORAGE), to.format(Task.DATE_STORAGE));
+            return showMatches(iris, taskList, header, () -> taskList.findBetween(from, to));
         } catch (Exception exception) {
-            return getUsageHint("delete", "delete <item-number>");
+            return getUsageHint("between", "between <from-date> <to-date>");
+        }
+    }
+
+    private String handleOverdue(Iris iris, TaskList taskList) {
+        LocalDate today = LocalDate.now();
+        return showMatches(iris, taskList, "Here are your overdue deadlines:\n", () ->
+                taskList.findOverdue(today));
+    }
+
+    // The query is rerun for every page so that "more" never shows positions made stale by deletions.
+    // Each page is resolved in one read, so concurrent changes cannot shift positions halfway through it.
+    private static String showMatches(Iris iris, TaskList taskList, String header, Supplier<List<Integer>> query) {
+        return showPage(iris, new ResultCursor(header, offset -> taskList.read(list -> {
+            List<Integer> matches = query.get();
+            int from = Math.min(offset, matches.size());
+            return matches.subList(from, Math.min(from + DEFAULT_PAGE_SIZE + 1, matches.size())).stream()
+                    .map(index -> formatLine(index, list.get(index)))
+                    .toList();
+        }).stream(), 0, DEFAULT_PAGE_SIZE));
+    }
+
+    private static String showPage(Iris iris, ResultCursor cursor) {
+        String page = cursor.nextPage();
+        iris.setCursor(cursor.hasMore() ? cursor : null);
+        return page;
+    }
+
+    // Concatenates instead of formatting so that the task's cached display line is reused as is
+    private static String formatLine(int index, Task task) {
+        return (index + 1) + ": " + task + "\n\n";
+    }
+
+    private String handleMore(Iris iris) {
+        ResultCursor cursor = iris.getCursor();
+        if (cursor == null) {
+            return "There is nothing more to show.";
         }
+        return showPage(iris, cursor);
     }
 
-    private String handleList(List<Task> taskList) {
-        StringBuilder result = new StringBuilder();
-        result.append("Here are your tasks:\n");
-        for (int i = 0; i < taskList.size(); i++) {
-            result.append(String.format("%d: %s\n", i + 1, taskList.get(i))).append("\n");
+    private String handleImport(TaskList taskList, String arg) {
+        if (arg == null || arg.isBlank()) {
+            return getUsageHint("import", "import <file>");
+        }
+        String file = arg.trim();
+        try {
+            TaskLoader.Result imported = TaskLoader.load(Path.of(file));
+            for (Task task : imported.tasks()) {
+                taskList.add(task);
+            }
+            String result = String.format("Imported %d tasks from %s.\n", imported.tasks().size(), file);
+            if (imported.malformedCount() > 0) {
+                result += String.format("Skipped %d malformed lines.\n", imported.malformedCount());
+            }
+            return result;
+        } catch (IOException | InvalidPathException exception) {
+            return String.format("Error: Failed to import tasks from %s.\n", file);
+        }
+    }
+
+    private String handleExport(TaskList taskList, String arg) {
+        if (arg == null || arg.isBlank()) {
+            return getUsageHint("export", "export <file>");
+        }
+        String file = arg.trim();
+        try {
+            TaskWriter.writeText(Path.of(file), taskList.asList());
+            return String.format("Exported %d tasks to %s.\n", taskList.size(), file);
+        } catch (IOException | InvalidPathException exception) {
+            return String.format("Error: Failed to export tasks to %s.\n", file);
+        }
+    }
+
+    private String handleUse(Iris iris, String arg) {
+        if (arg == null || !ListRegistry.isValidName(arg.trim())) {
+            return getUsageHint("use", "use <name>")
+                    + "where <name> is up to 64 letters, digits, underscores and dashes\n";
+        }
+        String name = arg.trim();
+        StoredList list = iris.useList(name);
+        String loadSummary = list.takeLoadSummary();
+        String result = String.format("Now using the list \"%s\" with %d tasks.\n", name, list.getTaskList().size());
+        return loadSummary == null ? result : loadSummary + result;
+    }
+
+    private String handleLists(Iris iris) {
+        StringBuilder result = new StringBuilder("Here are your lists:\n");
+        for (String name : iris.getListNames()) {
+            result.append(name.equals(iris.getListName()) ? "* " : "  ").append(name);
+            if (!iris.isLoaded(name)) {
+                result.append(" (not loaded)");
+            }
+            result.append('\n');
         }
         return result.toString();
     }
 
-    private String handleMark(List<Task> taskList, String arg) {
+    private String handleDelete(TaskList taskList, String arg) {
         try {
-            int listNumber = Integer.parseInt(arg);
-            taskList.get(listNumber - 1).setDone(true);
-            return "I've marked this iris.task as done:\n" + taskList.get(listNumber - 1);
+            return taskList.update(list -> {
+                if (!isSingleItem(arg)) {
+                    int removed = list.removeAll(parseSelection(list, arg));
+                    return String.format("I've deleted %d tasks.\nYou have %d tasks left.\n", removed,
+                            list.size());
+                }
+                Task removed = list.remove(resolveItem(list, arg));
+                return "I've deleted this iris.task:\n" + removed
+                        + String.format("\nYou have %d tasks left.\n", list.size());
+            });
         } catch (Exception exception) {
-            return getUsageHint("mark", "mark <item-number>");
+            return getUsageHint("delete",
+                    "delete <item-number> OR delete #<id> OR delete <selection>\n" + SELECTION_HINT);
         }
     }
 
-    private String handleUnmark(List<Task> taskList, String arg) {
+    private String handleList(Iris iris, TaskList taskList, String arg) {
+        int offset = 0;
+        int limit = DEFAULT_PAGE_SIZE;
+        TaskOrder order = null;
         try {
-            int listNumber = Integer.parseInt(arg);
-            taskList.get(listNumber - 1).setDone(false);
-            return "I've marked this iris.task to be completed:\n" + taskList.get(listNumber - 1);
+            String[] args = arg == null ? new String[0] : arg.trim().split("\\s+");
+            if (args.length == 1) {
+                int page = Integer.parseInt(args[0]);
+                if (page < 1) {
+                    throw new NumberFormatException();
+                }
+                offset = (page - 1) * limit;
+            } else {
+                for (int i = 0; i < args.length; i += 2) {
+                    String value = args[i + 1];
+                    switch (args[i]) {
+                    case FLAG_LIMIT -> limit = Integer.parseInt(value);
+                    case FLAG_OFFSET -> offset = Integer.parseInt(value);
+                    case FLAG_SORT -> order = TaskOrder.valueOf(value.toUpperCase(Locale.ROOT));
+                    default -> throw new NumberFormatException();
+                    }
+                }
+            }
+            if (limit < 1 || offset < 0) {
+                throw new NumberFormatException();
+            }
+        } catch (RuntimeException exception) {
+            return getUsageHint("list",
+                    "list [<page>] OR list [/sort date|type|done] [/limit <count>] [/offset <count>]");
+        }
+        int pageSize = limit;
+        if (order != null) {
+            TaskOrder sortOrder = order;
+            String header = "Here are your tasks by " + order.name().toLowerCase(Locale.ROOT) + ":\n";
+            return showPage(iris, new ResultCursor(header, from -> taskList.read(list ->
+                    list.findSorted(sortOrder, from, pageSize + 1).stream()
+                            .map(index -> formatLine(index, list.get(index)))
+                            .toList()).stream(), offset, limit));
+        }
+        return showPage(iris, new ResultCursor("Here are your tasks:\n", from -> taskList.read(list -> {
+            int start = Math.min(from, list.size());
+            return IntStream.range(start, (int) Math.min((long) start + pageSize + 1, list.size()))
+                    .mapToObj(index -> formatLine(index, list.get(index)))
+                    .toList();
+        }).stream(), offset, limit));
+    }
+
+    private String handleMark(TaskList taskList, String arg) {
+        try {
+            return taskList.update(list -> {
+                if (!isSingleItem(arg)) {
+                    int marked = list.setDoneAll(parseSelection(list, arg), true);
+                    return String.format("I've marked %d tasks as done.\n", marked);
+                }
+                Task task = list.setDone(resolveItem(list, arg), true);
+                return "I've marked this iris.task as done:\n" + task;
+            });
         } catch (Exception exception) {
-            return getUsageHint("unmark", "unmark <item-number>");
+            return getUsageHint("mark",
+                    "mark <item-number> OR mark #<id> OR mark <selection>\n" + SELECTION_HINT);
+        }
+    }
+
+    private String handleUnmark(TaskList taskList, String arg) {
+        try {
+            return taskList.update(list -> {
+                if (!isSingleItem(arg)) {
+                    int unmarked = list.setDoneAll(parseSelection(list, arg), false);
+                    return String.format("I've marked %d tasks to be completed.\n", unmarked);
+                }
+                Task task = list.setDone(resolveItem(list, arg), false);
+                return "I've marked this iris.task to be completed:\n" + task;
+            });
+        } catch (Exception exception) {
+            return getUsageHint("unmark",
+                    "unmark <item-number> OR unmark #<id> OR unmark <selection>\n" + SELECTION_HINT);
+        }
+    }
+
+    private static boolean isSingleItem(String arg) {
+        String digits = arg != null && arg.startsWith(ID_PREFIX) ? arg.substring(ID_PREFIX.length()) : arg;
+        return digits != null && !digits.isEmpty() && digits.chars().allMatch(Character::isDigit);
+    }
+
+    /**
+     * Resolves an item number, or a task ID prefixed with '#', to a position.
+     *
+     * @param taskList task list the item refers to
+     * @param item     one-based item number or "#" followed by a task ID
+     * @return zero-based position of the item
+     * @throws IllegalArgumentException if the item is malformed or does not exist
+     */
+    static int resolveItem(TaskList taskList, String item) {
+        if (item.startsWith(ID_PREFIX)) {
+            int position = taskList.positionOfId(Long.parseLong(item.substring(ID_PREFIX.length())));
+            if (position < 0) {
+                throw new IllegalArgumentException("No task with ID " + item);
+            }
+            return position;
+        }
+        return Integer.parseInt(item) - 1;
+    }
+
+    /**
+     * Parses a selection such as "1,4,9-20,#42" or "done" into the positions it refers to.
+     *
+     * @param taskList task list the selection refers to
+     * @param arg      comma-separated item numbers, inclusive ranges and #IDs, or "done"
+     * @return zero-based positions of the selected tasks
+     * @throws IllegalArgumentException if the selection is malformed or out of range
+     */
+    static BitSet parseSelection(TaskList taskList, String arg) {
+        BitSet selection = new BitSet(taskList.size());
+        if (arg.trim().equals(SELECT_DONE)) {
+            for (int i = 0; i < taskList.size(); i++) {
+                selection.set(i, taskList.get(i).isDone());
+            }
+            return selection;
+        }
+        for (String part : arg.split(",")) {
+            if (part.trim().startsWith(ID_PREFIX)) {
+                selection.set(resolveItem(taskList, part.trim()));
+                continue;
+            }
+            String[] bounds = part.trim().split("-", -1);
+            if (bounds.length > 2) {
+                throw new IllegalArgumentException("Malformed range " + part);
+            }
+            int from = Integer.parseInt(bounds[0].trim());
+            int to = bounds.length == 2 ? Integer.parseInt(bounds[1].trim()) : from;
+            if (from < 1 || to < from || to > taskList.size()) {
+                throw new IllegalArgumentException("Range out of bounds " + part);
+            }
+            selection.set(from - 1, to);
         }
+        return selection;
     }
 }
@@ -0,0 +1,59 @@
+package iris;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs commands against an Iris instance on a single dedicated worker thread.
+ * Work is executed strictly in submission order, and commands only ever run on
+ * the worker, so callers never block on slow commands. The one exception is
+ * {@link Iris#complete}, which other threads may call directly since it only reads
+ * the name of the list in use and lists that are already loaded.
+ */
+public class CommandExecutor {
+    private final Iris iris;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "iris-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CommandExecutor(Iris iris) {
+        this.iris = iris;
+    }
+
+    /**
+     * Queues a command for execution.
+     *
+     * @param commandString command string input by the user
+     * @return future completed with the response once the command has run
+     */
+    public CompletableFuture<String> submit(String commandString) {
+        return submit(() -> iris.processCommand(commandString));
+    }
+
+    /**
+     * Queues arbitrary work, such as loading or saving, behind the commands submitted so far.
+     *
+     * @param work work to run on the worker thread
+     * @return future completed with the result of the work
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, worker);
+    }
+
+    /**
+     * Stops accepting work and waits for queued work to finish.
+     */
+    public void shutdown() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
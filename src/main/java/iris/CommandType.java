@@ -9,10 +9,19 @@ public enum CommandType {
     ADD_EVENT,
     ADD_DO_AFTER,
     FIND,
+    DUE,
+    BETWEEN,
+    OVERDUE,
     DELETE,
     MARK,
     UNMARK,
     LIST,
+    MORE,
+    IMPORT,
+    EXPORT,
+    USE,
+    LISTS,
+    STATS,
     BYE,
     INVALID
 }
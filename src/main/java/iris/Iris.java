@@ -1,35 +1,146 @@
 package iris;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntConsumer;
 
-import iris.task.Task;
+import iris.metrics.LatencyHistogram;
+import iris.metrics.Metrics;
+import iris.storage.ListRegistry;
+import iris.storage.StoredList;
+import iris.task.CompletionTrie;
+import iris.task.TaskList;
 
 /**
  * Main class of the Iris application.
  * Handles user interaction, command parsing, and task management.
+ * Tasks are kept in named lists; an Iris works on one of them at a time, starting with the default list.
  */
 public class Iris {
-    private final List<Task> taskList;
+    // Set to "columnar" to keep tasks in a columnar store, trading allocation per access for a smaller heap
+    private static final String STORE_PROPERTY = "iris.store";
+    // Debounce window of the autosave in milliseconds
+    private static final String AUTOSAVE_PROPERTY = "iris.autosave.ms";
+    private static final long DEFAULT_AUTOSAVE_MS = 2000;
+    // Number of lists kept in memory before idle ones are unloaded
+    private static final String MAX_LOADED_LISTS_PROPERTY = "iris.lists.loaded";
+    private static final int DEFAULT_MAX_LOADED_LISTS = 8;
+    // File the metrics report is periodically written to; unset to not write one
+    private static final String METRICS_FILE_PROPERTY = "iris.metrics.file";
+    // Seconds between two writes of the metrics report
+    private static final String METRICS_INTERVAL_PROPERTY = "iris.metrics.interval.s";
+    private static final long DEFAULT_METRICS_INTERVAL_S = 60;
+
+    private final ListRegistry lists;
+    private final Metrics metrics;
+    // Latencies of each type of command, looked up once so that recording does not allocate
+    private final Map<CommandType, LatencyHistogram> commandLatencies;
+    // Volatile so that completions, which run on another thread, follow "use"
+    private volatile String listName = ListRegistry.DEFAULT_LIST;
+    // List the running command works on
+    private StoredList current;
+    private ResultCursor cursor;
 
     /**
      * Constructor for Iris class.
      */
     public Iris() {
-        this.taskList = new ArrayList<>();
+        this(new Metrics());
+    }
+
+    private Iris(Metrics metrics) {
+        this(new ListRegistry(
+                "columnar".equals(System.getProperty(STORE_PROPERTY)) ? TaskList::columnar : TaskList::new,
+                Integer.getInteger(MAX_LOADED_LISTS_PROPERTY, DEFAULT_MAX_LOADED_LISTS), metrics),
+                metrics, latenciesByType(metrics));
+    }
+
+    private Iris(ListRegistry lists, Metrics metrics, Map<CommandType, LatencyHistogram> commandLatencies) {
+        this.lists = lists;
+        this.metrics = metrics;
+        this.commandLatencies = commandLatencies;
+    }
+
+    private static Map<CommandType, LatencyHistogram> latenciesByType(Metrics metrics) {
+        Map<CommandType, LatencyHistogram> latencies = new EnumMap<>(CommandType.class);
+        for (CommandType type : CommandType.values()) {
+            latencies.put(type, metrics.latency(type.name().toLowerCase(Locale.ROOT)));
+        }
+        return latencies;
+    }
+
+    /**
+     * Returns an Iris that works on the same lists but chooses its list and pages its listings
+     * separately, so that every client of a shared Iris gets its own "use" and "more".
+     * Loading, saving and journaling stay with this instance, and metrics are shared.
+     *
+     * @return New session over the same lists
+     */
+    public Iris newSession() {
+        return new Iris(lists, metrics, commandLatencies);
+    }
+
+    /**
+     * Expose tasks of the list in use to Command for execution.
+     */
+    public TaskList getTaskList() {
+        if (current != null) {
+            return current.getTaskList();
+        }
+        StoredList list = lists.acquire(listName);
+        lists.release(list);
+        return list.getTaskList();
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public String getListName() {
+        return listName;
+    }
+
+    /**
+     * Switches to the named list, loading it if it is not in memory yet.
+     *
+     * @param name valid list name
+     * @return The list now in use
+     */
+    public StoredList useList(String name) {
+        StoredList list = lists.acquire(name);
+        try {
+            listName = name;
+            cursor = null;
+            return list;
+        } finally {
+            lists.release(list);
+        }
     }
 
     /**
-     * Expose tasks to Command for execution.
+     * Returns the names of every list, loaded or stored, with the default list first.
      */
-    public List<Task> getTaskList() {
-        return taskList;
+    public List<String> getListNames() {
+        return lists.names();
+    }
+
+    public boolean isLoaded(String name) {
+        return lists.isLoaded(name);
+    }
+
+    /**
+     * Returns the cursor of the last listing that has more pages to show.
+     */
+    public ResultCursor getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(ResultCursor cursor) {
+        this.cursor = cursor;
     }
 
     /**
@@ -42,57 +153,106 @@ public class Iris {
     }
 
     /**
-     * Saves taskList into data.txt.
+     * Saves every loaded list into its file as a binary snapshot and discards the journals they supersede.
      *
-     * @param filePath Path to save tasks
+     * @param filePath Path to save the default list to, if no file was loaded before
      */
     public void save(String filePath) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            taskList.stream()
-                    .map(Task::serialize)
-                    .forEach(writer::println);
-        } catch (IOException exception) {
-            System.err.println("Error: Failed to write tasks to " + filePath + ".");
-        }
+        lists.saveAll(Path.of(filePath));
     }
 
-
     /**
-     * Loads taskList from the specified filePath.
+     * Loads the default list from the specified filePath, replays its journal and
+     * starts journaling further changes. Other lists are stored next to it and
+     * loaded when first used.
      *
      * @param filePath Path to load tasks
+     * @return Summary of the load, including samples of malformed lines
      */
     public String load(String filePath) {
-        StringBuilder result = new StringBuilder();
-        try {
-            Scanner scanner = new Scanner(new File(filePath));
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                Task task = Task.deserialize(line);
-                if (task != null) {
-                    this.taskList.add(task);
-                    result.append("Loaded iris.task: ").append(task).append("\n");
-                } else {
-                    result.append("Error: Malformed iris.task line, ignoring: ").append(line).append("\n");
-                }
+        return load(filePath, percent -> { });
+    }
+
+    /**
+     * Loads the default list like {@link #load(String)}, reporting how far the load has got.
+     *
+     * @param filePath Path to load tasks
+     * @param progress receives the percentage of the load that is done, possibly from several threads
+     * @return Summary of the load, including samples of malformed lines
+     */
+    public String load(String filePath, IntConsumer progress) {
+        return lists.attach(Path.of(filePath), progress);
+    }
+
+    /**
+     * Starts saving the lists in the background whenever a burst of changes has settled.
+     * The debounce window can be set with the iris.autosave.ms system property.
+     */
+    public void startAutosave() {
+        lists.startAutosave(Long.getLong(AUTOSAVE_PROPERTY, DEFAULT_AUTOSAVE_MS));
+    }
+
+    /**
+     * Suggests ways to finish the last word of a partly typed command: command keywords for the
+     * first word, and the most frequent words of the tasks in the list in use for any later word.
+     * May be called from any thread, also while a command runs; it only reads the list in use if
+     * that list is already loaded, and suggests no task words otherwise.
+     *
+     * @param input partly typed command
+     * @param limit maximum number of suggestions, at most {@link CompletionTrie#MAX_SUGGESTIONS}
+     * @return the input with its last word completed, best suggestion first
+     */
+    public List<String> complete(String input, int limit) {
+        int wordStart = input.lastIndexOf(' ') + 1;
+        String prefix = input.substring(wordStart);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        List<String> words;
+        if (wordStart == 0) {
+            words = Command.completeKeyword(prefix, limit);
+        } else {
+            StoredList list = lists.peek(listName);
+            words = list == null ? List.of() : list.getTaskList().completeWord(prefix, limit);
+        }
+        List<String> result = new ArrayList<>(words.size());
+        for (String word : words) {
+            if (!word.equals(prefix)) {
+                result.add(input.substring(0, wordStart) + word);
             }
-            scanner.close();
-        } catch (FileNotFoundException exception) {
-            result.append("Note: Tasks ").append(filePath).append(" not found. Starting from scratch...");
-        } catch (Exception exception) {
-            assert false : "Unexpected error when loading tasks from " + filePath + ".";
         }
-        return result.toString();
+        return result;
     }
 
+    /**
+     * Starts writing the metrics report periodically to the file named by the iris.metrics.file
+     * system property, every iris.metrics.interval.s seconds. Does nothing if the property is not set.
+     */
+    public void startMetricsDump() {
+        String file = System.getProperty(METRICS_FILE_PROPERTY);
+        if (file != null) {
+            metrics.startDump(Path.of(file), Long.getLong(METRICS_INTERVAL_PROPERTY, DEFAULT_METRICS_INTERVAL_S));
+        }
+    }
 
     /**
      * Processes a command string and updates the task list accordingly.
+     * The time it takes, including waiting for its list to load, is recorded by command type.
      *
      * @param commandString The command string input by the user.
      * @return A response message indicating the result of the command.
      */
     public String processCommand(String commandString) {
-        return new Command(commandString).execute(this);
+        long start = System.nanoTime();
+        Command command = new Command(commandString);
+        StoredList list = lists.acquire(listName);
+        current = list;
+        try {
+            return command.execute(this);
+        } finally {
+            current = null;
+            lists.release(list);
+            commandLatencies.get(command.getType()).record(System.nanoTime() - start);
+        }
     }
 }
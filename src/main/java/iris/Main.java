@@ -2,7 +2,7 @@ package iris;
 
 import java.io.IOException;
 
-import iris.ui.DialogBox;
+import iris.ui.Message;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -24,14 +24,12 @@ public class Main extends Application {
             stage.setScene(scene);
 
             MainWindow controller = loader.getController();
-            controller.setIris(iris);
+            controller.setIris(iris, new CommandExecutor(iris));
 
-            DialogBox welcomeMessage = new DialogBox(iris.getPreamble(), false);
-            String loadResult = iris.load("data.txt");
-            DialogBox loadMessage = new DialogBox(loadResult, false);
-            controller.getChatContainer().getChildren().addAll(welcomeMessage, loadMessage);
+            controller.addMessages(new Message(iris.getPreamble(), false));
 
             stage.show();
+            controller.hydrate("data.txt");
         } catch (IOException exception) {
             exception.printStackTrace();
             assert false : "Unexpected error while loading the GUI.";
@@ -1,63 +1,141 @@
 package iris;
 
-import iris.ui.DialogBox;
+import iris.ui.Autocomplete;
+import iris.ui.DialogCell;
+import iris.ui.Message;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 
 /**
  * JavaFx GUI interface for Iris.
  */
 public class MainWindow extends AnchorPane {
+    // Oldest messages are dropped beyond this length so that long sessions use bounded memory
+    private static final int MAX_TRANSCRIPT_LENGTH = 10_000;
+    // Shown in place of a response until the command has finished running
+    private static final String PENDING_TEXT = "...";
+    private static final String LOADING_FORMAT = "Loading your tasks... %d%%";
+    // Completions offered while typing
+    private static final int MAX_SUGGESTIONS = 5;
+
     @FXML
     private TextField userInput;
     @FXML
-    private VBox chatContainer;
-    @FXML
-    private ScrollPane scrollPane;
+    private ListView<Message> chatView;
     @FXML
     private Button sendButton;
 
+    private final ObservableList<Message> transcript = FXCollections.observableArrayList();
     private Iris iris;
+    private CommandExecutor executor;
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(chatContainer.heightProperty());
+        chatView.setItems(transcript);
+        chatView.setCellFactory(DialogCell::new);
     }
 
-    public void setIris(Iris iris) {
+    /**
+     * Connects the window to the Iris instance whose commands it runs, and starts suggesting
+     * completions of commands and task words as the user types.
+     *
+     * @param iris     Iris instance
+     * @param executor executor that runs commands against the instance off the FX thread
+     */
+    public void setIris(Iris iris, CommandExecutor executor) {
         this.iris = iris;
+        this.executor = executor;
+        new Autocomplete(userInput, text -> iris.complete(text, MAX_SUGGESTIONS));
+    }
+
+    /**
+     * Appends messages to the transcript and scrolls to the newest one.
+     *
+     * @param messages messages to append
+     */
+    public void addMessages(Message... messages) {
+        transcript.addAll(messages);
+        int excess = transcript.size() - MAX_TRANSCRIPT_LENGTH;
+        if (excess > 0) {
+            transcript.remove(0, excess);
+        }
+        chatView.scrollTo(transcript.size() - 1);
+    }
+
+    /**
+     * Loads the tasks on the executor while the window is already showing, keeping a progress
+     * message up to date and replacing it with the load summary once done. Commands entered
+     * in the meantime queue up behind the load and run as soon as it has finished.
+     *
+     * @param filePath file to load the tasks from
+     */
+    public void hydrate(String filePath) {
+        Message[] shown = {new Message(String.format(LOADING_FORMAT, 0), false)};
+        int[] shownPercent = {0};
+        addMessages(shown[0]);
+        executor.submit(() -> {
+            String summary = iris.load(filePath, percent -> Platform.runLater(() -> {
+                // Reports from different loader threads may arrive out of order
+                if (percent > shownPercent[0]) {
+                    Message progress = new Message(String.format(LOADING_FORMAT, percent), false);
+                    resolve(shown[0], progress);
+                    shown[0] = progress;
+                    shownPercent[0] = percent;
+                }
+            }));
+            iris.startAutosave();
+            iris.startMetricsDump();
+            return summary;
+        }).whenComplete((summary, error) -> Platform.runLater(() -> {
+            String text = error == null ? summary : "Error: Failed to load tasks from " + filePath + ".";
+            resolve(shown[0], new Message(text, false));
+        }));
     }
 
-    public VBox getChatContainer() {
-        return chatContainer;
+    // Swaps a pending placeholder for the final message; placeholders are matched by identity
+    private void resolve(Message placeholder, Message message) {
+        for (int i = transcript.size() - 1; i >= 0; i--) {
+            if (transcript.get(i) == placeholder) {
+                transcript.set(i, message);
+                return;
+            }
+        }
     }
 
     /**
-     * Handles user input from the text field and generates appropriate responses.
+     * Handles user input from the text field and shows the response once the command has run.
+     * Commands run on the executor, so the text field stays responsive while they do.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        if (!input.isBlank()) {
-            DialogBox userDialog = new DialogBox(input, true);
-
-
-            String response = iris.processCommand(input);
-            DialogBox botDialog = new DialogBox(response, false);
-
-            chatContainer.getChildren().addAll(userDialog, botDialog);
-            userInput.clear();
+        if (input.isBlank()) {
+            return;
+        }
+        Message pending = new Message(PENDING_TEXT, false);
+        addMessages(new Message(input, true), pending);
+        userInput.clear();
 
-            if (input.equals("bye")) {
+        executor.submit(input).whenComplete((response, error) -> Platform.runLater(() -> {
+            String text = error == null ? response : "An unknown error occurred.";
+            resolve(pending, new Message(text, false));
+        }));
+        if (input.equals("bye")) {
+            userInput.setDisable(true);
+            sendButton.setDisable(true);
+            executor.submit(() -> {
                 iris.save("data.txt");
+                return null;
+            }).whenComplete((ignored, error) -> Platform.runLater(() -> {
                 Platform.exit();
                 System.exit(0);
-            }
+            }));
         }
     }
 }
@@ -0,0 +1,61 @@
+package iris;
+
+import java.util.Iterator;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Position within the output of a listing command that is shown one page at a time.
+ * Lines are produced lazily from the requested offset, so only the lines of the current
+ * page are ever formatted, and every page reflects the task list as it is when shown.
+ */
+public class ResultCursor {
+    private final String header;
+    private final IntFunction<Stream<String>> linesFrom;
+    private final int limit;
+    private int offset;
+    private boolean hasMore;
+
+    /**
+     * Creates a cursor over lazily produced lines.
+     *
+     * @param header    text shown above every page
+     * @param linesFrom produces the lines starting at the given offset
+     * @param offset    number of lines to skip before the first page
+     * @param limit     number of lines per page
+     */
+    public ResultCursor(String header, IntFunction<Stream<String>> linesFrom, int offset, int limit) {
+        assert limit > 0 : "Page size must be positive";
+        this.header = header;
+        this.linesFrom = linesFrom;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Renders the next page and advances the cursor past it.
+     *
+     * @return header followed by at most one page of lines
+     */
+    public String nextPage() {
+        StringBuilder result = new StringBuilder(header);
+        int shown = 0;
+        try (Stream<String> lines = linesFrom.apply(offset)) {
+            Iterator<String> iterator = lines.iterator();
+            while (shown < limit && iterator.hasNext()) {
+                result.append(iterator.next());
+                shown++;
+            }
+            hasMore = iterator.hasNext();
+        }
+        offset += shown;
+        if (hasMore) {
+            result.append(String.format("Type \"more\" to see the next %d.\n", limit));
+        }
+        return result.toString();
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,38 @@
+package iris.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event spanning the execution of one command.
+ */
+@Name("iris.Command")
+@Label("Command")
+@Category("Iris")
+@Description("Execution of a command against a task list")
+public class CommandEvent extends Event {
+    @Label("Command Type")
+    private String commandType;
+
+    @Label("Argument Length")
+    @Description("Number of characters after the command word")
+    private int argumentLength;
+
+    /**
+     * Fills in and commits the given event if it is being recorded; it is cheap to call when it is not.
+     *
+     * @param event          event begun when the command started
+     * @param commandType    type of the command
+     * @param argumentLength number of characters after the command word
+     */
+    public static void commit(CommandEvent event, String commandType, int argumentLength) {
+        if (event.shouldCommit()) {
+            event.commandType = commandType;
+            event.argumentLength = argumentLength;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package iris.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event spanning the construction of a dialog box, which loads its layout from FXML.
+ */
+@Name("iris.DialogBox")
+@Label("Dialog Box Construction")
+@Category({"Iris", "UI"})
+@Description("Construction of a dialog box on the JavaFX application thread")
+public class DialogBoxEvent extends Event {
+}
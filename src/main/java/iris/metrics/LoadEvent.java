@@ -0,0 +1,51 @@
+package iris.metrics;
+
+import java.nio.file.Path;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event spanning the load of a task list from its file, including the journal replay.
+ */
+@Name("iris.Load")
+@Label("Load")
+@Category("Iris")
+@Description("Load of a task list from its file")
+public class LoadEvent extends Event {
+    @Label("List")
+    private String list;
+
+    @Label("Path")
+    private String path;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Fills in and commits the given event if it is being recorded; it is cheap to call when it is not.
+     *
+     * @param event     event begun when the load started
+     * @param list      name of the loaded list
+     * @param path      file the list was loaded from
+     * @param taskCount number of tasks in the list after the load
+     * @param bytes     size of the file
+     */
+    public static void commit(LoadEvent event, String list, Path path, int taskCount, long bytes) {
+        if (event.shouldCommit()) {
+            event.list = list;
+            event.path = path.toString();
+            event.taskCount = taskCount;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package iris.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Instrumentation of one running Iris: latency histograms of commands, load and save
+ * statistics, and gauges that are read when a report is made.
+ * Histograms and statistics are created up front so that recording into them takes no locks and
+ * allocates nothing; only {@link #report} does the formatting.
+ */
+public class Metrics {
+    private static final long BYTES_PER_KIB = 1024;
+
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentSkipListMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final TransferStats loads = new TransferStats();
+    private final TransferStats saves = new TransferStats();
+    private ScheduledExecutorService dumper;
+
+    /**
+     * Creates empty metrics with gauges of the heap in use and the heap limit.
+     */
+    public Metrics() {
+        Runtime runtime = Runtime.getRuntime();
+        registerGauge("heap used (KiB)", () -> (runtime.totalMemory() - runtime.freeMemory()) / BYTES_PER_KIB);
+        registerGauge("heap max (KiB)", () -> runtime.maxMemory() / BYTES_PER_KIB);
+    }
+
+    /**
+     * Returns the latency histogram of the named command, creating it on first use.
+     * Callers on a hot path should look it up once and keep it.
+     *
+     * @param name name of the command
+     * @return histogram shared by everyone asking for the same name
+     */
+    public LatencyHistogram latency(String name) {
+        return latencies.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    public TransferStats getLoads() {
+        return loads;
+    }
+
+    public TransferStats getSaves() {
+        return saves;
+    }
+
+    /**
+     * Adds a gauge that is read every time a report is made, replacing any gauge of the same name.
+     *
+     * @param name  name of the gauge, including its unit
+     * @param value reads the current value; it may be called from any thread
+     */
+    public void registerGauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Returns every command that ran at least once with its count and latency percentiles,
+     * the load and save statistics, and the current value of every gauge.
+     *
+     * @return multi-line report
+     */
+    public String report() {
+        StringBuilder result = new StringBuilder("Commands:\n");
+        latencies.forEach((name, histogram) -> {
+            if (histogram.count() > 0) {
+                result.append("  ").append(name).append(": ").append(histogram.summary("runs")).append('\n');
+            }
+        });
+        result.append("Loads: ").append(loads.summary()).append('\n');
+        result.append("Saves: ").append(saves.summary()).append('\n');
+        result.append("Gauges:\n");
+        new ConcurrentSkipListMap<>(gauges).forEach((name, value) ->
+                result.append("  ").append(name).append(": ").append(value.getAsLong()).append('\n'));
+        return result.toString();
+    }
+
+    /**
+     * Starts writing the report to the given file at a fixed interval on a background thread.
+     * Every dump replaces the file atomically, so readers never see a partial report.
+     *
+     * @param file            file to write the report to
+     * @param intervalSeconds seconds between two dumps
+     */
+    public synchronized void startDump(Path file, long intervalSeconds) {
+        if (dumper != null) {
+            return;
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "iris-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> dump(file), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes the report to the given file once, replacing it atomically.
+     *
+     * @param file file to write the report to
+     */
+    public void dump(Path file) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(temp, "Metrics at " + LocalDateTime.now() + "\n" + report(), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            System.err.println("Error: Failed to write metrics to " + file + ".");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package iris.metrics;
+
+import java.nio.file.Path;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event spanning the write of a task list snapshot to its file.
+ */
+@Name("iris.Save")
+@Label("Save")
+@Category("Iris")
+@Description("Write of a task list snapshot to its file")
+public class SaveEvent extends Event {
+    @Label("Path")
+    private String path;
+
+    @Label("Trigger")
+    @Description("What started the save: save, autosave or compaction")
+    private String trigger;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Fills in and commits the given event if it is being recorded; it is cheap to call when it is not.
+     *
+     * @param event     event begun when the save started
+     * @param path      file the snapshot was written to
+     * @param trigger   what started the save
+     * @param taskCount number of tasks in the snapshot
+     * @param bytes     number of bytes written
+     */
+    public static void commit(SaveEvent event, Path path, String trigger, int taskCount, long bytes) {
+        if (event.shouldCommit()) {
+            event.path = path.toString();
+            event.trigger = trigger;
+            event.taskCount = taskCount;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package iris.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a stored line that could not be turned back into a task.
+ */
+@Name("iris.TaskParseFailure")
+@Label("Task Parse Failure")
+@Category("Iris")
+@Description("Stored line that could not be deserialized into a task")
+@StackTrace(false)
+public class TaskParseFailureEvent extends Event {
+    @Label("Line")
+    private String line;
+
+    /**
+     * Records that the given line failed to deserialize, if such failures are being recorded.
+     *
+     * @param line line that failed to deserialize
+     */
+    public static void emit(String line) {
+        TaskParseFailureEvent event = new TaskParseFailureEvent();
+        if (event.shouldCommit()) {
+            event.line = line;
+            event.commit();
+        }
+    }
+}
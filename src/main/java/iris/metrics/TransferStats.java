@@ -0,0 +1,56 @@
+package iris.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts of a kind of file transfer, such as loads or saves: how many succeeded and failed,
+ * how many bytes they moved, how fast, and how long each took.
+ * Recording takes no locks and allocates nothing.
+ */
+public class TransferStats {
+    private final LatencyHistogram durations = new LatencyHistogram();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Records a transfer that succeeded.
+     *
+     * @param byteCount number of bytes read or written
+     * @param elapsed   duration of the transfer in nanoseconds
+     */
+    public void record(long byteCount, long elapsed) {
+        durations.record(elapsed);
+        bytes.addAndGet(byteCount);
+        nanos.addAndGet(elapsed);
+    }
+
+    public void recordFailure() {
+        failures.incrementAndGet();
+    }
+
+    public long count() {
+        return durations.count();
+    }
+
+    public long bytes() {
+        return bytes.get();
+    }
+
+    public long failures() {
+        return failures.get();
+    }
+
+    /**
+     * Returns the counts, the total size and throughput, and the duration percentiles.
+     *
+     * @return one-line summary
+     */
+    public String summary() {
+        long totalNanos = nanos.get();
+        double megabytes = bytes() / 1e6;
+        double throughput = totalNanos > 0 ? megabytes / (totalNanos / 1e9) : 0;
+        return String.format("%d failed, %.3f MB at %.1f MB/s, ", failures(), megabytes, throughput)
+                + durations.summary("done");
+    }
+}
@@ -0,0 +1,238 @@
+package iris.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import iris.Iris;
+import iris.metrics.LatencyHistogram;
+
+/**
+ * Daemon that serves one shared task list to local clients over TCP or a Unix-domain socket.
+ * Usage: {@code iris.server.CommandServer [--data <file>] [--port <port> | --socket <path>]}
+ *
+ * <p>Every line a client sends is one command. Every response is sent as its lines followed by
+ * a line holding a single ".", and response lines that start with "." get another "." in front,
+ * so the end of a response is unambiguous. Clients may pipeline commands without waiting for
+ * the responses; they are executed and answered in order. Each connection is served by its own
+ * thread and its own {@link Iris#newSession() session}, so "use" and "more" are per client.
+ */
+public class CommandServer implements Closeable {
+    static final String END_OF_RESPONSE = ".";
+    static final int DEFAULT_PORT = 4747;
+    private static final String DEFAULT_DATA_FILE = "data.txt";
+    // Seconds between latency reports on standard error while requests keep coming in
+    private static final long REPORT_INTERVAL_SECONDS = 60;
+    // Seconds that in-flight commands get to finish when the server is closed
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final Iris iris;
+    private final SocketAddress address;
+    private final ServerSocketChannel listener;
+    private final Set<SocketChannel> clients = ConcurrentHashMap.newKeySet();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "iris-client-" + connectionCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean isClosed;
+
+    /**
+     * Starts listening on the given address. Commands are served once {@link #serve} is called.
+     *
+     * @param iris    Iris whose tasks are served; each connection gets a session of it
+     * @param address loopback socket address or Unix-domain socket path to listen on
+     * @throws IOException if the address cannot be bound
+     */
+    public CommandServer(Iris iris, SocketAddress address) throws IOException {
+        this.iris = iris;
+        this.address = address;
+        this.listener = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        listener.bind(address);
+    }
+
+    /**
+     * Loads the tasks, then serves them until the process is stopped, saving them on the way out.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) throws IOException {
+        String dataFile = DEFAULT_DATA_FILE;
+        String port = null;
+        String socket = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--data" -> dataFile = args[++i];
+            case "--port" -> port = args[++i];
+            case "--socket" -> socket = args[++i];
+            default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        Iris iris = new Iris();
+        System.err.print(iris.load(dataFile));
+        iris.startAutosave();
+        iris.startMetricsDump();
+        CommandServer server = new CommandServer(iris, addressOf(port, socket));
+        String savedFile = dataFile;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            iris.save(savedFile);
+            System.err.println("Served " + server.latencies.summary());
+        }));
+        System.err.println("Serving " + dataFile + " on " + server.getAddress());
+        server.serve();
+    }
+
+    /**
+     * Returns the address given on the command line, defaulting to the default port on the loopback interface.
+     *
+     * @param port   TCP port, or null
+     * @param socket Unix-domain socket path, or null
+     * @return address to listen on or connect to
+     */
+    static SocketAddress addressOf(String port, String socket) {
+        if (socket != null) {
+            return UnixDomainSocketAddress.of(socket);
+        }
+        int portNumber = port == null ? DEFAULT_PORT : Integer.parseInt(port);
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), portNumber);
+    }
+
+    public SocketAddress getAddress() throws IOException {
+        return listener.getLocalAddress();
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Accepts connections until the server is closed, serving each on its own thread.
+     *
+     * @throws IOException if accepting fails for a reason other than the server being closed
+     */
+    public void serve() throws IOException {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "iris-latency-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long[] reportedCount = {0};
+        reporter.scheduleAtFixedRate(() -> {
+            long count = latencies.count();
+            if (count > reportedCount[0]) {
+                reportedCount[0] = count;
+                System.err.println("Latency: " + latencies.summary());
+            }
+        }, REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        try {
+            while (!isClosed) {
+                SocketChannel client = listener.accept();
+                clients.add(client);
+                connections.execute(() -> handle(client));
+            }
+        } catch (AsynchronousCloseException exception) {
+            // Closed while waiting for the next connection
+        } finally {
+            reporter.shutdownNow();
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        Iris session = iris.newSession();
+        try (client;
+                BufferedReader in = new BufferedReader(new InputStreamReader(
+                        Channels.newInputStream(client), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                        Channels.newOutputStream(client), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                long start = System.nanoTime();
+                String response = session.processCommand(line);
+                latencies.record(System.nanoTime() - start);
+                writeResponse(out, response);
+                if (line.equals("bye")) {
+                    break;
+                }
+                // Answer a pipelined batch with a single write once every buffered command has run
+                if (!in.ready()) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException exception) {
+            // The client went away; there is nobody left to answer
+        } finally {
+            clients.remove(client);
+        }
+    }
+
+    private static void writeResponse(BufferedWriter out, String response) throws IOException {
+        for (String line : response.stripTrailing().split("\n", -1)) {
+            if (line.startsWith(END_OF_RESPONSE)) {
+                out.write(END_OF_RESPONSE);
+            }
+            out.write(line);
+            out.write('\n');
+        }
+        out.write(END_OF_RESPONSE);
+        out.write('\n');
+    }
+
+    /**
+     * Stops accepting connections, disconnects every client and waits briefly for their commands to finish.
+     */
+    @Override
+    public void close() {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        try {
+            listener.close();
+            for (SocketChannel client : clients) {
+                client.shutdownInput();
+            }
+        } catch (IOException exception) {
+            System.err.println("Error: Failed to close connections: " + exception.getMessage());
+        }
+        connections.shutdown();
+        try {
+            connections.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        if (address instanceof UnixDomainSocketAddress socket) {
+            try {
+                Files.deleteIfExists(socket.getPath());
+            } catch (IOException exception) {
+                System.err.println("Error: Failed to remove socket " + socket.getPath() + ".");
+            }
+        }
+    }
+}
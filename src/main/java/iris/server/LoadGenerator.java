@@ -0,0 +1,146 @@
+package iris.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.SocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import iris.metrics.LatencyHistogram;
+
+/**
+ * Client that drives a {@link CommandServer} with a mix of adds, searches and listings from
+ * several connections at once, and reports the throughput and the latency percentiles it observed.
+ * Usage: {@code iris.server.LoadGenerator [--port <port> | --socket <path>] [--connections <count>]
+ * [--requests <count>] [--pipeline <depth>]}
+ *
+ * <p>Every connection keeps up to the pipeline depth of commands in flight. Latency is measured
+ * from sending a command to receiving the end of its response, so it includes time spent queued
+ * behind earlier commands of the same batch. The added todos are left in the served list, so
+ * point the server at a scratch data file.
+ */
+public class LoadGenerator {
+    private static final int DEFAULT_CONNECTIONS = 4;
+    private static final int DEFAULT_REQUESTS = 10_000;
+    private static final int DEFAULT_PIPELINE = 1;
+
+    private final SocketAddress address;
+    private final int requests;
+    private final int pipeline;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    LoadGenerator(SocketAddress address, int requests, int pipeline) {
+        assert pipeline > 0 : "Pipeline depth must be positive";
+        this.address = address;
+        this.requests = requests;
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Runs the load and prints a summary to standard output.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String port = null;
+        String socket = null;
+        int connections = DEFAULT_CONNECTIONS;
+        int requests = DEFAULT_REQUESTS;
+        int pipeline = DEFAULT_PIPELINE;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--port" -> port = args[++i];
+            case "--socket" -> socket = args[++i];
+            case "--connections" -> connections = Integer.parseInt(args[++i]);
+            case "--requests" -> requests = Integer.parseInt(args[++i]);
+            case "--pipeline" -> pipeline = Integer.parseInt(args[++i]);
+            default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        LoadGenerator generator = new LoadGenerator(CommandServer.addressOf(port, socket), requests, pipeline);
+        long start = System.nanoTime();
+        generator.run(connections);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long total = generator.latencies.count();
+        System.out.printf("%d requests over %d connections with pipeline depth %d in %.3f s (%.0f requests/sec)%n",
+                total, connections, pipeline, seconds, total / seconds);
+        System.out.println(generator.latencies.summary());
+    }
+
+    /**
+     * Sends the configured number of requests on each of the given number of connections.
+     *
+     * @param connections number of concurrent connections
+     * @throws IOException if a connection fails
+     */
+    void run(int connections) throws IOException, InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(connections);
+        List<Future<Void>> results = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            int connection = i;
+            results.add(clients.submit(() -> {
+                drive(connection);
+                return null;
+            }));
+        }
+        clients.shutdown();
+        try {
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException exception) {
+            throw new IOException("Connection failed", exception.getCause());
+        }
+    }
+
+    private void drive(int connection) throws IOException {
+        long[] sentAt = new long[pipeline];
+        try (SocketChannel channel = SocketChannel.open(address);
+                BufferedReader in = new BufferedReader(new InputStreamReader(
+                        Channels.newInputStream(channel), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                        Channels.newOutputStream(channel), StandardCharsets.UTF_8))) {
+            for (int sent = 0; sent < requests; ) {
+                int batch = Math.min(pipeline, requests - sent);
+                for (int i = 0; i < batch; i++) {
+                    out.write(commandFor(connection, sent + i));
+                    out.write('\n');
+                    sentAt[i] = System.nanoTime();
+                }
+                out.flush();
+                for (int i = 0; i < batch; i++) {
+                    skipResponse(in);
+                    latencies.record(System.nanoTime() - sentAt[i]);
+                }
+                sent += batch;
+            }
+        }
+    }
+
+    private static String commandFor(int connection, int request) {
+        return switch (request % 4) {
+        case 0 -> "todo load test " + connection + "-" + request;
+        case 2 -> "list";
+        default -> "find load";
+        };
+    }
+
+    private static void skipResponse(BufferedReader in) throws IOException {
+        String line;
+        while (!CommandServer.END_OF_RESPONSE.equals(line = in.readLine())) {
+            if (line == null) {
+                throw new IOException("Server closed the connection");
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package iris.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import iris.metrics.SaveEvent;
+import iris.metrics.TransferStats;
+import iris.task.Task;
+import iris.task.TaskList;
+import iris.task.TaskListener;
+import iris.task.TaskSnapshot;
+
+/**
+ * Saves a snapshot of the task list in the background once a burst of changes has settled.
+ * A save starts after no change has been seen for the debounce window, or at the latest
+ * after {@link #MAX_DELAY_WINDOWS} windows of continuous changes. Taking the snapshot only
+ * read-locks the task list briefly; it is serialized and written off the command threads.
+ * With a journal, a save folds the journal into the snapshot so the two stay consistent.
+ */
+public class Autosaver implements TaskListener {
+    // Continuous changes postpone a save by at most this many debounce windows
+    static final int MAX_DELAY_WINDOWS = 5;
+
+    private final Path snapshotPath;
+    private final TaskList taskList;
+    private final Journal journal;
+    private final TransferStats saves;
+    private final long debounceNanos;
+    private final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "iris-autosave");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private boolean isScheduled;
+    private volatile boolean isClosed;
+    private long firstChange;
+    private long lastChange;
+
+    /**
+     * Creates an autosaver; it starts saving once it is registered as a listener of the task list.
+     *
+     * @param snapshotPath file to save to
+     * @param taskList     task list to save
+     * @param journal      journal of the file, or null if changes are not journaled
+     * @param debounceMs   length of the debounce window in milliseconds
+     * @param saves        statistics that saves are recorded in
+     */
+    public Autosaver(Path snapshotPath, TaskList taskList, Journal journal, long debounceMs, TransferStats saves) {
+        this.snapshotPath = snapshotPath;
+        this.taskList = taskList;
+        this.journal = journal;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMs);
+        this.saves = saves;
+    }
+
+    @Override
+    public void taskAdded(int index, Task task) {
+        changed();
+    }
+
+    @Override
+    public void taskRemoved(int index, Task task) {
+        changed();
+    }
+
+    @Override
+    public void taskUpdated(int index, Task task) {
+        changed();
+    }
+
+    private synchronized void changed() {
+        lastChange = System.nanoTime();
+        if (!isScheduled) {
+            isScheduled = true;
+            firstChange = lastChange;
+            saver.schedule(this::settle, debounceNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Waits out the rest of the window if changes kept coming, unless the save is already overdue
+    private synchronized void settle() {
+        if (isClosed) {
+            return;
+        }
+        long now = System.nanoTime();
+        long quiet = now - lastChange;
+        if (quiet < debounceNanos && now - firstChange < MAX_DELAY_WINDOWS * debounceNanos) {
+            saver.schedule(this::settle, debounceNanos - quiet, TimeUnit.NANOSECONDS);
+            return;
+        }
+        isScheduled = false;
+        saver.execute(this::save);
+    }
+
+    private void save() {
+        if (isClosed) {
+            return;
+        }
+        if (journal != null) {
+            journal.compact();
+            return;
+        }
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            TaskSnapshot snapshot = taskList.snapshot();
+            long written = TaskWriter.writeBinary(snapshotPath, snapshot);
+            saves.record(written, System.nanoTime() - start);
+            SaveEvent.commit(event, snapshotPath, "autosave", snapshot.size(), written);
+        } catch (IOException exception) {
+            saves.recordFailure();
+            System.err.println("Error: Failed to autosave tasks to " + snapshotPath + ".");
+        }
+    }
+
+    /**
+     * Stops autosaving and waits for a save in progress; the caller is expected to save once more.
+     */
+    public void close() {
+        synchronized (this) {
+            isClosed = true;
+        }
+        saver.shutdown();
+        try {
+            saver.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
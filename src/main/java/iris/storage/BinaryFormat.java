@@ -0,0 +1,202 @@
+package iris.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+import iris.task.Task;
+import iris.task.TaskCodec;
+import iris.task.TaskSnapshot;
+
+/**
+ * Versioned binary snapshot format.
+ * A file starts with a magic number, the format version, the total record count and the
+ * next task ID the list would assign, followed by blocks of records. Every block starts with
+ * its record count, its payload length and a CRC32C of the count, the length and the payload,
+ * so a damaged payload is detected and contained in its block. A damaged length breaks the chain of blocks after it,
+ * which fails the whole decode instead, so that the blocks it hides are never overwritten.
+ * The records themselves are written by {@link TaskCodec}.
+ */
+final class BinaryFormat {
+    static final int MAGIC = 0x49524953;
+    static final int VERSION = 3;
+    // Magic number, version, record count and next task ID
+    static final int HEADER_LENGTH = 24;
+    // Record count, payload length and checksum
+    static final int BLOCK_HEADER_LENGTH = 12;
+    // Leading part of the block header that the checksum covers along with the payload
+    private static final int CHECKED_HEADER_LENGTH = 2 * Integer.BYTES;
+    static final int RECORDS_PER_BLOCK = 4096;
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Returns whether the file starts with the magic number of this format.
+     *
+     * @param channel file to probe
+     * @return true if the file is a binary snapshot
+     * @throws IOException if the file cannot be read
+     */
+    static boolean isBinary(FileChannel channel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+        channel.read(magic, 0);
+        return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+    }
+
+    /**
+     * Encodes a snapshot as a complete snapshot file image.
+     *
+     * @param snapshot tasks in list order
+     * @return buffer positioned at the start of the image
+     */
+    static ByteBuffer encode(TaskSnapshot snapshot) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + BLOCK_HEADER_LENGTH + 32 * snapshot.size());
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(snapshot.size()).putLong(snapshot.getNextId());
+        int blockStart = -1;
+        int blockRecords = 0;
+        CRC32C checksum = new CRC32C();
+        for (int i = 0; i < snapshot.size(); i++) {
+            Task task = snapshot.get(i);
+            if (blockRecords == RECORDS_PER_BLOCK) {
+                finishBlock(buffer, blockStart, blockRecords, checksum);
+                blockStart = -1;
+            }
+            if (blockStart < 0) {
+                buffer = ensureRemaining(buffer, BLOCK_HEADER_LENGTH);
+                blockStart = buffer.position();
+                buffer.position(blockStart + BLOCK_HEADER_LENGTH);
+                blockRecords = 0;
+            }
+            buffer = ensureRemaining(buffer, TaskCodec.maxEncodedLength(task));
+            TaskCodec.encode(task, snapshot.isDone(i), buffer);
+            blockRecords++;
+        }
+        if (blockStart >= 0) {
+            finishBlock(buffer, blockStart, blockRecords, checksum);
+        }
+        return buffer.flip();
+    }
+
+    private static void finishBlock(ByteBuffer buffer, int blockStart, int records, CRC32C checksum) {
+        int payloadStart = blockStart + BLOCK_HEADER_LENGTH;
+        int payloadLength = buffer.position() - payloadStart;
+        buffer.putInt(blockStart, records);
+        buffer.putInt(blockStart + Integer.BYTES, payloadLength);
+        checksum.reset();
+        checksum.update(buffer.array(), blockStart, CHECKED_HEADER_LENGTH);
+        checksum.update(buffer.array(), payloadStart, payloadLength);
+        buffer.putInt(blockStart + CHECKED_HEADER_LENGTH, (int) checksum.getValue());
+    }
+
+    private static ByteBuffer ensureRemaining(ByteBuffer buffer, int needed) {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        grown.put(buffer.flip());
+        return grown;
+    }
+
+    /**
+     * Decodes a snapshot, verifying every block in parallel.
+     * Blocks that fail their checksum are counted as malformed records.
+     *
+     * @param channel  file to decode, starting with the magic number
+     * @param progress progress of the decoding, measured in bytes of the file
+     * @return decoded tasks in file order and a record of malformed blocks
+     * @throws IOException if the file cannot be read, has an unsupported version, or its chain of
+     *                     blocks breaks off before every record is reached
+     */
+    static TaskLoader.Result decode(FileChannel channel, ProgressReporter progress) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + size + " bytes is too large to map");
+        }
+        MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (size < HEADER_LENGTH || file.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary task snapshot");
+        }
+        int version = file.getInt(Integer.BYTES);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        long expectedRecords = file.getLong(2 * Integer.BYTES);
+        long nextId = file.getLong(2 * Integer.BYTES + Long.BYTES);
+        List<Integer> blockStarts = new ArrayList<>();
+        long foundRecords = 0;
+        int position = HEADER_LENGTH;
+        while (position + BLOCK_HEADER_LENGTH <= size) {
+            int records = file.getInt(position);
+            int payloadLength = file.getInt(position + Integer.BYTES);
+            if (records < 0 || payloadLength < 0 || payloadLength > size - position - BLOCK_HEADER_LENGTH) {
+                break;
+            }
+            blockStarts.add(position);
+            foundRecords += Math.min(records, maxRecords(payloadLength));
+            position += BLOCK_HEADER_LENGTH + payloadLength;
+        }
+        if (position != size || foundRecords < expectedRecords) {
+            // The blocks after a damaged header cannot be found, so none of the file may be trusted to replace them
+            throw new IOException(String.format("Snapshot blocks break off at byte %d with %d of %d records found",
+                    position, foundRecords, expectedRecords));
+        }
+        List<TaskLoader.Result> blocks = IntStream.range(0, blockStarts.size())
+                .parallel()
+                .mapToObj(i -> {
+                    TaskLoader.Result block = decodeBlock(file, blockStarts.get(i));
+                    progress.advance(BLOCK_HEADER_LENGTH + file.getInt(blockStarts.get(i) + Integer.BYTES));
+                    return block;
+                })
+                .toList();
+        TaskLoader.Result decoded = TaskLoader.Result.concat(blocks);
+        return new TaskLoader.Result(decoded.tasks(), decoded.malformedCount(), decoded.malformedSamples(), nextId);
+    }
+
+    private static TaskLoader.Result decodeBlock(ByteBuffer file, int blockStart) {
+        int records = file.getInt(blockStart);
+        int payloadLength = file.getInt(blockStart + Integer.BYTES);
+        int expectedChecksum = file.getInt(blockStart + CHECKED_HEADER_LENGTH);
+        byte[] payload = new byte[payloadLength];
+        file.get(blockStart + BLOCK_HEADER_LENGTH, payload);
+        CRC32C checksum = new CRC32C();
+        checksum.update(file.slice(blockStart, CHECKED_HEADER_LENGTH));
+        checksum.update(payload);
+        // A damaged count is not trusted further than the payload can hold
+        int trustedRecords = Math.min(records, maxRecords(payloadLength));
+        if ((int) checksum.getValue() != expectedChecksum) {
+            return corruptBlock(trustedRecords, blockStart, "checksum mismatch");
+        }
+        if (records > trustedRecords) {
+            // Checked before anything is sized by the count, which a corrupted header can make huge
+            return corruptBlock(trustedRecords, blockStart, "record count exceeds payload");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        List<Task> tasks = new ArrayList<>(records);
+        try {
+            for (int i = 0; i < records; i++) {
+                tasks.add(TaskCodec.decode(buffer));
+            }
+        } catch (RuntimeException exception) {
+            return corruptBlock(records, blockStart, "malformed record");
+        }
+        if (buffer.hasRemaining()) {
+            return corruptBlock(records, blockStart, "trailing bytes");
+        }
+        return new TaskLoader.Result(tasks, 0, List.of(), 0);
+    }
+
+    private static int maxRecords(int payloadLength) {
+        return payloadLength / TaskCodec.MIN_ENCODED_LENGTH;
+    }
+
+    private static TaskLoader.Result corruptBlock(int records, int blockStart, String reason) {
+        return new TaskLoader.Result(List.of(), records,
+                List.of(String.format("<%d records in block at byte %d: %s>", records, blockStart, reason)), 0);
+    }
+}
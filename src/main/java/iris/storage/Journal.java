@@ -0,0 +1,451 @@
+package iris.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import iris.metrics.SaveEvent;
+import iris.metrics.TransferStats;
+import iris.task.Task;
+import iris.task.TaskList;
+import iris.task.TaskListener;
+import iris.task.TaskSnapshot;
+
+/**
+ * Append-only journal of task list mutations backed by a snapshot file.
+ * Deletions and status changes refer to tasks by their stable ID.
+ * Records are grouped and fsynced in batches, and the journal is periodically
+ * compacted into a fresh snapshot on a background thread.
+ */
+public class Journal implements TaskListener {
+    // Number of buffered records that triggers an immediate group commit
+    static final int BATCH_SIZE = 64;
+    // Upper bound on how long a record may stay buffered before it is fsynced
+    static final long FLUSH_INTERVAL_MS = 50;
+    // Number of journal records after which a compaction is started
+    static final int COMPACTION_THRESHOLD = 10_000;
+
+    private static final String RECORD_ADD = "A";
+    private static final String RECORD_DELETE = "D";
+    private static final String RECORD_MARK = "M";
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Path oldJournalPath;
+    private final Path compactedPath;
+    private final Path checkpointPath;
+    private final TaskList taskList;
+    private final TransferStats saves;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            runnable -> daemon(runnable, "iris-journal-flusher"));
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(
+            runnable -> daemon(runnable, "iris-journal-compactor"));
+
+    // Null while journaling is stopped because the journal could not be reopened
+    private FileChannel channel;
+    private StringBuilder pending = new StringBuilder();
+    private int pendingRecords;
+    private boolean isFlushScheduled;
+    private int recordsSinceCompaction;
+    private boolean isCompacting;
+
+    /**
+     * Opens the journal belonging to the given snapshot file for appending.
+     *
+     * @param snapshotPath path of the snapshot file
+     * @param taskList     task list whose mutations are recorded
+     * @param saves        statistics that compactions are recorded in
+     * @throws IOException if the journal cannot be opened
+     */
+    public Journal(Path snapshotPath, TaskList taskList, TransferStats saves) throws IOException {
+        this.snapshotPath = snapshotPath;
+        this.journalPath = journalPathFor(snapshotPath);
+        this.oldJournalPath = oldJournalPathFor(snapshotPath);
+        this.compactedPath = compactedPathFor(snapshotPath);
+        this.checkpointPath = checkpointPathFor(snapshotPath);
+        this.taskList = taskList;
+        this.saves = saves;
+        this.channel = openChannel(journalPath);
+    }
+
+    static Path journalPathFor(Path snapshotPath) {
+        return snapshotPath.resolveSibling(snapshotPath.getFileName() + ".journal");
+    }
+
+    static Path oldJournalPathFor(Path snapshotPath) {
+        return snapshotPath.resolveSibling(snapshotPath.getFileName() + ".journal.old");
+    }
+
+    static Path compactedPathFor(Path snapshotPath) {
+        return snapshotPath.resolveSibling(snapshotPath.getFileName() + ".compacted");
+    }
+
+    // A snapshot written here supersedes both journals, unlike a compacted one, which only supersedes the rotated one
+    static Path checkpointPathFor(Path snapshotPath) {
+        return snapshotPath.resolveSibling(snapshotPath.getFileName() + ".checkpoint");
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static FileChannel openChannel(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Finishes a compaction or checkpoint that was interrupted by a crash, so that the snapshot
+     * file and the journal files on disk are consistent before loading.
+     * A completed compaction supersedes both the old snapshot and the rotated journal;
+     * a completed checkpoint also supersedes the current journal.
+     *
+     * @param snapshotPath path of the snapshot file
+     * @throws IOException if the files cannot be moved
+     */
+    public static void recover(Path snapshotPath) throws IOException {
+        Path compacted = compactedPathFor(snapshotPath);
+        if (Files.exists(checkpointPathFor(snapshotPath))) {
+            finishCheckpoint(snapshotPath);
+        } else if (Files.exists(compacted)) {
+            Files.deleteIfExists(oldJournalPathFor(snapshotPath));
+            Files.move(compacted, snapshotPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Replays the rotated and the current journal of the given snapshot onto the task list.
+     *
+     * @param snapshotPath path of the snapshot file
+     * @param taskList     task list holding the snapshot contents
+     * @return number of records that were applied
+     * @throws IOException if a journal exists but cannot be read
+     */
+    public static int replay(Path snapshotPath, TaskList taskList) throws IOException {
+        return replayFile(oldJournalPathFor(snapshotPath), taskList)
+                + replayFile(journalPathFor(snapshotPath), taskList);
+    }
+
+    /**
+     * Folds replayed journals into a fresh snapshot so that a new journal starts empty.
+     *
+     * @param snapshotPath path of the snapshot file
+     * @param taskList     task list holding the replayed contents
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void checkpoint(Path snapshotPath, TaskList taskList) throws IOException {
+        writeCheckpoint(snapshotPath, taskList.snapshot());
+    }
+
+    // Once the checkpoint file is on disk, recovery deletes both journals, so a crash
+    // between any two of the steps after it can neither lose nor replay a record twice
+    private static long writeCheckpoint(Path snapshotPath, TaskSnapshot snapshot) throws IOException {
+        long written = TaskWriter.writeBinary(checkpointPathFor(snapshotPath), snapshot);
+        finishCheckpoint(snapshotPath);
+        return written;
+    }
+
+    private static void finishCheckpoint(Path snapshotPath) throws IOException {
+        Files.deleteIfExists(compactedPathFor(snapshotPath));
+        Files.deleteIfExists(oldJournalPathFor(snapshotPath));
+        Files.deleteIfExists(journalPathFor(snapshotPath));
+        Files.move(checkpointPathFor(snapshotPath), snapshotPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int replayFile(Path path, TaskList taskList) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        int applied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (apply(line, taskList)) {
+                    applied++;
+                }
+            }
+        }
+        return applied;
+    }
+
+    // Torn or otherwise malformed records (e.g. after a crash mid-write) are skipped
+    private static boolean apply(String record, TaskList taskList) {
+        String[] parts = record.split("\\|", 2);
+        if (parts.length < 2) {
+            return false;
+        }
+        try {
+            switch (parts[0]) {
+            case RECORD_ADD -> {
+                Task task = Task.deserialize(parts[1]);
+                if (task == null) {
+                    return false;
+                }
+                taskList.add(task);
+            }
+            case RECORD_DELETE -> taskList.remove(positionOf(taskList, parts[1]));
+            case RECORD_MARK -> {
+                String[] args = parts[1].split("\\|");
+                taskList.setDone(positionOf(taskList, args[0]), Boolean.parseBoolean(args[1]));
+            }
+            default -> {
+                return false;
+            }
+            }
+            return true;
+        } catch (RuntimeException exception) {
+            return false;
+        }
+    }
+
+    private static int positionOf(TaskList taskList, String id) {
+        int position = taskList.positionOfId(Long.parseLong(id));
+        if (position < 0) {
+            throw new IllegalArgumentException("No task with ID " + id);
+        }
+        return position;
+    }
+
+    @Override
+    public void taskAdded(int index, Task task) {
+        append(RECORD_ADD + "|" + task.serialize());
+    }
+
+    @Override
+    public void taskRemoved(int index, Task task) {
+        append(RECORD_DELETE + "|" + task.getId());
+    }
+
+    @Override
+    public void taskUpdated(int index, Task task) {
+        append(RECORD_MARK + "|" + task.getId() + "|" + task.isDone());
+    }
+
+    private synchronized void append(String record) {
+        pending.append(record).append('\n');
+        pendingRecords++;
+        recordsSinceCompaction++;
+        if (pendingRecords >= BATCH_SIZE) {
+            flusher.execute(this::flushQuietly);
+        } else if (!isFlushScheduled) {
+            isFlushScheduled = true;
+            flusher.schedule(this::flushQuietly, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+        if (recordsSinceCompaction >= COMPACTION_THRESHOLD && !isCompacting) {
+            startCompaction();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException exception) {
+            System.err.println("Error: Failed to write journal " + journalPath + ".");
+        }
+    }
+
+    /**
+     * Writes all buffered records to disk and fsyncs the journal as one group commit.
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        isFlushScheduled = false;
+        if (pendingRecords == 0) {
+            return;
+        }
+        if (channel == null) {
+            // The next snapshot that is written holds these changes instead
+            pending = new StringBuilder();
+            pendingRecords = 0;
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(pending.toString().getBytes(StandardCharsets.UTF_8));
+        pending = new StringBuilder();
+        pendingRecords = 0;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Folds the journal into a fresh snapshot now instead of waiting for the record threshold.
+     * The task list is read-locked first, so that the snapshot and the journal rotation happen
+     * between the same two mutations, and so that the lock order matches that of a mutation
+     * appending to this journal.
+     */
+    public void compact() {
+        taskList.read(list -> {
+            synchronized (this) {
+                if (recordsSinceCompaction > 0 && !isCompacting) {
+                    startCompaction();
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Folds both journals into a fresh snapshot right away and waits until it is on disk.
+     * The journal stays open and records every change made after the snapshot was taken.
+     *
+     * @param trigger what the snapshot is written for, as recorded in its save event
+     * @return true if the snapshot was written
+     */
+    public boolean checkpointNow(String trigger) {
+        while (true) {
+            // A compaction still writing an older snapshot would otherwise move it over this one
+            try {
+                compactor.submit(() -> { }).get();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException exception) {
+                throw new IllegalStateException(exception);
+            }
+            Boolean isWritten = taskList.read(list -> {
+                synchronized (this) {
+                    return isCompacting ? null : checkpointLocked(taskList.snapshot(), trigger);
+                }
+            });
+            if (isWritten != null) {
+                return isWritten;
+            }
+        }
+    }
+
+    // Takes the snapshot and rotates the journal under the lock, then writes the snapshot in the background
+    private void startCompaction() {
+        TaskSnapshot snapshot = taskList.snapshot();
+        if (Files.exists(oldJournalPath) || Files.exists(checkpointPath) || Files.exists(compactedPath)) {
+            // The last compaction or checkpoint failed, so the files it left hold records that the snapshot file
+            // lacks, and rotating again would overwrite them; fold everything into the snapshot right away instead
+            checkpointLocked(snapshot, "compaction");
+            return;
+        }
+        try {
+            flush();
+            closeChannel();
+            Files.move(journalPath, oldJournalPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            channel = openChannel(journalPath);
+        } catch (IOException exception) {
+            System.err.println("Error: Failed to rotate journal " + journalPath + ".");
+            return;
+        }
+        isCompacting = true;
+        recordsSinceCompaction = 0;
+        compactor.execute(() -> writeCompacted(snapshot));
+    }
+
+    private boolean checkpointLocked(TaskSnapshot snapshot, String trigger) {
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean isWritten = false;
+        try {
+            flush();
+            closeChannel();
+            long written = writeCheckpoint(snapshotPath, snapshot);
+            saves.record(written, System.nanoTime() - start);
+            SaveEvent.commit(event, snapshotPath, trigger, snapshot.size(), written);
+            isWritten = true;
+        } catch (IOException exception) {
+            saves.recordFailure();
+            System.err.println("Error: Failed to compact journal into " + snapshotPath + ".");
+        }
+        // Retry only after another full batch of records, not on every mutation
+        recordsSinceCompaction = 0;
+        if (!isWritten && Files.exists(checkpointPath) && !demoteCheckpoint()) {
+            // Recovery would replace a reopened journal by the checkpoint, losing every record appended to it
+            System.err.println("Error: Stopped journaling " + journalPath + " until the tasks can be saved.");
+            return false;
+        }
+        try {
+            channel = openChannel(journalPath);
+        } catch (IOException exception) {
+            System.err.println("Error: Failed to reopen journal " + journalPath + ".");
+        }
+        return isWritten;
+    }
+
+    // A checkpoint that could not be moved into place supersedes both journals, so once they are gone it holds
+    // the same as a compacted snapshot, which recovery moves into place without dropping the journal after it
+    private boolean demoteCheckpoint() {
+        try {
+            Files.deleteIfExists(oldJournalPath);
+            Files.deleteIfExists(journalPath);
+            Files.move(checkpointPath, compactedPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException exception) {
+            return false;
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void writeCompacted(TaskSnapshot snapshot) {
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            long written = TaskWriter.writeBinary(compactedPath, snapshot);
+            Files.deleteIfExists(oldJournalPath);
+            Files.move(compactedPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            saves.record(written, System.nanoTime() - start);
+            SaveEvent.commit(event, snapshotPath, "compaction", snapshot.size(), written);
+        } catch (IOException exception) {
+            saves.recordFailure();
+            System.err.println("Error: Failed to compact journal into " + snapshotPath + ".");
+        } finally {
+            synchronized (this) {
+                isCompacting = false;
+            }
+        }
+    }
+
+    /**
+     * Flushes outstanding records, waits for a running compaction and closes the journal.
+     */
+    public void close() {
+        flushQuietly();
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        flusher.shutdown();
+        synchronized (this) {
+            try {
+                flush();
+                closeChannel();
+            } catch (IOException exception) {
+                System.err.println("Error: Failed to close journal " + journalPath + ".");
+            }
+        }
+    }
+}
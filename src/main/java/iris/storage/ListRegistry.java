@@ -0,0 +1,352 @@
+package iris.storage;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import iris.metrics.Metrics;
+import iris.task.TaskList;
+
+/**
+ * Named task lists, each stored in its own file and loaded into memory only when first used.
+ * The default list is stored in the data file, and every other list in a file named after it
+ * in the {@link #LISTS_DIRECTORY} directory next to the data file. Once more lists are loaded
+ * than the registry may keep, the least recently used ones that no command is running against
+ * are saved and unloaded; they are loaded again the next time they are used.
+ * Lists are loaded and saved outside the registry's lock, so a large list being loaded or
+ * evicted only holds up the commands that use that list.
+ */
+public class ListRegistry {
+    public static final String DEFAULT_LIST = "default";
+    static final String LISTS_DIRECTORY = "lists";
+    private static final String LIST_EXTENSION = ".txt";
+    private static final Pattern LIST_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    // A list that failed to save on eviction is not tried again for this long
+    private static final long EVICTION_RETRY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Supplier<TaskList> newTaskList;
+    private final int maxLoaded;
+    private final Metrics metrics;
+    // Loaded lists from least to most recently used
+    private final Map<String, StoredList> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    // Lists being loaded, which are already in loaded, or being saved for eviction, which no longer are;
+    // each future completes once that is done
+    private final Map<String, CompletableFuture<Void>> busy = new HashMap<>();
+    private Path dataFile;
+    private long autosaveMs = -1;
+
+    /**
+     * Creates a registry that keeps its lists in memory until {@link #attach} gives it a data file.
+     *
+     * @param newTaskList creates the empty task list of a list being loaded
+     * @param maxLoaded   number of lists to keep loaded before idle ones are unloaded
+     * @param metrics     metrics that loads and saves are recorded in; gauges of the loaded lists are added to it
+     */
+    public ListRegistry(Supplier<TaskList> newTaskList, int maxLoaded, Metrics metrics) {
+        assert maxLoaded > 0 : "At least one list must stay loaded";
+        this.newTaskList = newTaskList;
+        this.maxLoaded = maxLoaded;
+        this.metrics = metrics;
+        metrics.registerGauge("loaded lists", this::loadedCount);
+        metrics.registerGauge("loaded tasks", this::loadedTaskCount);
+    }
+
+    /**
+     * Returns whether the given name can be used for a list.
+     *
+     * @param name name to check
+     * @return true if the name is made of up to 64 letters, digits, underscores and dashes
+     */
+    public static boolean isValidName(String name) {
+        return LIST_NAME.matcher(name).matches();
+    }
+
+    /**
+     * Stores the lists next to the given data file and loads the default list from it.
+     * Lists already in memory are merged with the tasks in their files. The lists are loaded
+     * outside the registry's lock, default list first, and other threads wait only to use them.
+     *
+     * @param dataFile file of the default list
+     * @param progress receives the percentage of the default list that is loaded
+     * @return Summary of loading the default list
+     */
+    public String attach(Path dataFile, IntConsumer progress) {
+        List<StoredList> lists = new ArrayList<>();
+        List<CompletableFuture<Void>> pendings = new ArrayList<>();
+        while (true) {
+            CompletableFuture<Void> inFlight = null;
+            synchronized (this) {
+                if (busy.isEmpty()) {
+                    this.dataFile = dataFile;
+                    if (!loaded.containsKey(DEFAULT_LIST)) {
+                        loadList(DEFAULT_LIST);
+                    }
+                    for (StoredList list : loaded.values()) {
+                        list.setPath(pathOf(list.getName()));
+                        CompletableFuture<Void> pending = new CompletableFuture<>();
+                        busy.put(list.getName(), pending);
+                        int at = list.getName().equals(DEFAULT_LIST) ? 0 : lists.size();
+                        lists.add(at, list);
+                        pendings.add(at, pending);
+                    }
+                } else {
+                    // A list still loading from memory alone would otherwise see its path change halfway
+                    inFlight = CompletableFuture.allOf(busy.values().toArray(CompletableFuture[]::new));
+                }
+            }
+            if (inFlight == null) {
+                break;
+            }
+            inFlight.join();
+        }
+        for (int i = 0; i < lists.size(); i++) {
+            load(lists.get(i), pendings.get(i), i == 0 ? progress : percent -> { });
+        }
+        return lists.get(0).takeLoadSummary();
+    }
+
+    /**
+     * Starts autosaving every list that is loaded now or later.
+     *
+     * @param debounceMs length of the debounce window in milliseconds
+     */
+    public synchronized void startAutosave(long debounceMs) {
+        autosaveMs = debounceMs;
+        for (StoredList list : loaded.values()) {
+            // Lists still loading start autosaving once their tasks are in
+            if (!busy.containsKey(list.getName())) {
+                list.startAutosave(debounceMs);
+            }
+        }
+    }
+
+    /**
+     * Returns the named list, loading it first if needed, and pins it until {@link #release}
+     * so that it is not unloaded while a command runs against it. Only waits for other threads
+     * while they are loading or evicting this same list.
+     *
+     * @param name valid list name
+     * @return the pinned list
+     */
+    public StoredList acquire(String name) {
+        StoredList list;
+        while (true) {
+            CompletableFuture<Void> pending;
+            boolean isLoader = false;
+            synchronized (this) {
+                list = loaded.get(name);
+                pending = busy.get(name);
+                if (list == null && pending == null) {
+                    list = loadList(name);
+                    pending = new CompletableFuture<>();
+                    busy.put(name, pending);
+                    isLoader = true;
+                }
+                if (list != null) {
+                    list.pin();
+                }
+            }
+            if (isLoader) {
+                load(list, pending, percent -> { });
+            } else if (pending != null) {
+                pending.join();
+            }
+            if (list != null) {
+                break;
+            }
+            // The list was being saved for eviction; it is either back in memory or in its file now
+        }
+        evictIdle();
+        return list;
+    }
+
+    private void load(StoredList list, CompletableFuture<Void> pending, IntConsumer progress) {
+        try {
+            list.load(progress);
+        } finally {
+            synchronized (this) {
+                if (autosaveMs >= 0) {
+                    // Autosave starts once the tasks are in, so that loading them does not trigger a save
+                    list.startAutosave(autosaveMs);
+                }
+                busy.remove(list.getName());
+            }
+            pending.complete(null);
+        }
+    }
+
+    /**
+     * Unpins a list returned by {@link #acquire}.
+     *
+     * @param list list that is no longer used by the caller
+     */
+    public synchronized void release(StoredList list) {
+        list.unpin();
+    }
+
+    /**
+     * Returns the named list if it is loaded, without loading it, pinning it or counting it as used,
+     * so that callers outside the command thread can read it without causing an eviction.
+     *
+     * @param name valid list name
+     * @return the loaded list, or null if it is not loaded or still loading
+     */
+    public synchronized StoredList peek(String name) {
+        if (busy.containsKey(name)) {
+            return null;
+        }
+        // Iterated rather than looked up, since a lookup would move the list in the access order
+        for (StoredList list : loaded.values()) {
+            if (list.getName().equals(name)) {
+                return list;
+            }
+        }
+        return null;
+    }
+
+    private StoredList loadList(String name) {
+        assert isValidName(name) : "Invalid list name " + name;
+        StoredList list = new StoredList(name, newTaskList.get(), pathOf(name), metrics);
+        loaded.put(name, list);
+        return list;
+    }
+
+    // Takes the lists to evict out of loaded under the lock, then saves them without holding it
+    private void evictIdle() {
+        List<StoredList> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (dataFile == null) {
+                // Without files to save to, unloading would lose the tasks
+                return;
+            }
+            long now = System.nanoTime();
+            Iterator<StoredList> leastRecentFirst = loaded.values().iterator();
+            while (loaded.size() > maxLoaded && leastRecentFirst.hasNext()) {
+                StoredList list = leastRecentFirst.next();
+                // A list that failed to load is kept, since it can be neither saved nor reloaded without losing changes
+                if (!list.isPinned() && !list.isLoadFailed() && !busy.containsKey(list.getName())
+                        && isSaveRetryDue(list, now)) {
+                    leastRecentFirst.remove();
+                    busy.put(list.getName(), new CompletableFuture<>());
+                    evicted.add(list);
+                }
+            }
+        }
+        for (StoredList list : evicted) {
+            boolean isSaved = list.save();
+            CompletableFuture<Void> pending;
+            synchronized (this) {
+                if (!isSaved) {
+                    loaded.put(list.getName(), list);
+                }
+                pending = busy.remove(list.getName());
+            }
+            pending.complete(null);
+        }
+    }
+
+    private static boolean isSaveRetryDue(StoredList list, long now) {
+        long failure = list.getLastSaveFailure();
+        return failure == 0 || now - failure > EVICTION_RETRY_NANOS;
+    }
+
+    public synchronized boolean isLoaded(String name) {
+        return loaded.containsKey(name);
+    }
+
+    private synchronized long loadedCount() {
+        return loaded.size();
+    }
+
+    private synchronized long loadedTaskCount() {
+        long total = 0;
+        for (StoredList list : loaded.values()) {
+            total += list.getTaskList().size();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the names of every list, loaded or stored, with the default list first.
+     *
+     * @return list names
+     */
+    public synchronized List<String> names() {
+        TreeSet<String> names = new TreeSet<>(loaded.keySet());
+        if (dataFile != null) {
+            // A list whose changes were never saved into its file still has its journal
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(listsDirectory(), "*" + LIST_EXTENSION + "*")) {
+                for (Path file : files) {
+                    String fileName = file.getFileName().toString();
+                    String name = fileName.substring(0, fileName.indexOf(LIST_EXTENSION));
+                    if (isValidName(name) && isListFile(file, pathOf(name))) {
+                        names.add(name);
+                    }
+                }
+            } catch (NoSuchFileException exception) {
+                // No list other than the default one has been saved yet
+            } catch (IOException exception) {
+                System.err.println("Error: Failed to read the lists in " + listsDirectory() + ".");
+            }
+        }
+        names.remove(DEFAULT_LIST);
+        List<String> result = new ArrayList<>();
+        result.add(DEFAULT_LIST);
+        result.addAll(names);
+        return result;
+    }
+
+    private static boolean isListFile(Path file, Path listPath) {
+        return file.equals(listPath) || file.equals(Journal.journalPathFor(listPath))
+                || file.equals(Journal.oldJournalPathFor(listPath)) || file.equals(Journal.checkpointPathFor(listPath))
+                || file.equals(Journal.compactedPathFor(listPath));
+    }
+
+    /**
+     * Saves every loaded list; the lists stay loaded but are no longer journaled or autosaved.
+     *
+     * @param dataFile file of the default list, used if the registry was never attached to one
+     */
+    public synchronized void saveAll(Path dataFile) {
+        if (this.dataFile == null) {
+            this.dataFile = dataFile;
+            for (StoredList list : loaded.values()) {
+                list.setPath(pathOf(list.getName()));
+            }
+        }
+        for (StoredList list : loaded.values()) {
+            // A list still loading has nothing new to save
+            if (!busy.containsKey(list.getName())) {
+                list.save();
+            }
+        }
+    }
+
+    private Path listsDirectory() {
+        return dataFile.resolveSibling(LISTS_DIRECTORY);
+    }
+
+    private Path pathOf(String name) {
+        if (dataFile == null) {
+            return null;
+        }
+        if (name.equals(DEFAULT_LIST)) {
+            return dataFile;
+        }
+        return listsDirectory().resolve(name + LIST_EXTENSION);
+    }
+}
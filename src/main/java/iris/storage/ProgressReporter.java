@@ -0,0 +1,52 @@
+package iris.storage;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * Turns units of work done by one phase of a load into a whole percentage of the entire load.
+ * Work may be counted from several threads at once; the listener hears of every percentage at most once.
+ */
+class ProgressReporter {
+    private final IntConsumer listener;
+    private final int fromPercent;
+    private final int toPercent;
+    private final long totalUnits;
+    private final AtomicLong doneUnits = new AtomicLong();
+    private final AtomicInteger reportedPercent;
+
+    /**
+     * Creates a reporter for a phase that covers the given share of the load.
+     *
+     * @param listener    receives the percentage of the entire load that is done
+     * @param fromPercent percentage of the load done when the phase starts
+     * @param toPercent   percentage of the load done when the phase ends
+     * @param totalUnits  units of work in the phase
+     */
+    ProgressReporter(IntConsumer listener, int fromPercent, int toPercent, long totalUnits) {
+        this.listener = listener;
+        this.fromPercent = fromPercent;
+        this.toPercent = toPercent;
+        this.totalUnits = Math.max(totalUnits, 1);
+        this.reportedPercent = new AtomicInteger(fromPercent);
+    }
+
+    /**
+     * Counts units of work as done and reports the new percentage if it went up.
+     *
+     * @param units units of work just finished
+     */
+    void advance(long units) {
+        long done = Math.min(doneUnits.addAndGet(units), totalUnits);
+        int percent = fromPercent + (int) ((toPercent - fromPercent) * done / totalUnits);
+        int reported = reportedPercent.get();
+        while (percent > reported) {
+            if (reportedPercent.compareAndSet(reported, percent)) {
+                listener.accept(percent);
+                return;
+            }
+            reported = reportedPercent.get();
+        }
+    }
+}
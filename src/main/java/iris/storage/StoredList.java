@@ -0,0 +1,256 @@
+package iris.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import iris.metrics.LoadEvent;
+import iris.metrics.Metrics;
+import iris.metrics.SaveEvent;
+import iris.task.Task;
+import iris.task.TaskList;
+import iris.task.TaskSnapshot;
+
+/**
+ * Named task list together with the file it is stored in and the journal and autosave
+ * that keep that file up to date. A list without a file lives in memory only.
+ */
+public class StoredList {
+    // Share of the load spent decoding the file; the rest is spent adding the tasks to the list
+    private static final int DECODE_PERCENT = 50;
+    // Tasks added between two progress updates
+    private static final int PROGRESS_BATCH = 4096;
+
+    private final String name;
+    private final TaskList taskList;
+    private final Metrics metrics;
+    private Path path;
+    private Journal journal;
+    private Autosaver autosaver;
+    // Debounce window autosave was started with, or -1 if it was not started
+    private long autosaveMs = -1;
+    private volatile String loadSummary;
+    // Set when the file exists but could not be read, so that saving never overwrites it
+    private boolean isLoadFailed;
+    // When the last save failed, from System.nanoTime(), or 0 if none has
+    private volatile long lastSaveFailure;
+    // Commands currently running against the list; a pinned list is never evicted
+    private int pins;
+
+    /**
+     * Creates an empty list; call {@link #load} to fill it from its file.
+     *
+     * @param name     name of the list
+     * @param taskList empty task list to hold the tasks
+     * @param path     file the list is stored in, or null to keep it in memory only
+     * @param metrics  metrics that loads and saves are recorded in
+     */
+    public StoredList(String name, TaskList taskList, Path path, Metrics metrics) {
+        this.name = name;
+        this.taskList = taskList;
+        this.path = path;
+        this.metrics = metrics;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public TaskList getTaskList() {
+        return taskList;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    void setPath(Path path) {
+        this.path = path;
+    }
+
+    boolean isLoadFailed() {
+        return isLoadFailed;
+    }
+
+    long getLastSaveFailure() {
+        return lastSaveFailure;
+    }
+
+    boolean isPinned() {
+        return pins > 0;
+    }
+
+    void pin() {
+        pins++;
+    }
+
+    void unpin() {
+        assert pins > 0 : "List was not pinned";
+        pins--;
+    }
+
+    /**
+     * Returns the summary of the last load and forgets it, so that it is reported only once.
+     *
+     * @return Summary of the last load, or null if it was already taken
+     */
+    public String takeLoadSummary() {
+        String summary = loadSummary;
+        loadSummary = null;
+        return summary;
+    }
+
+    /**
+     * Loads the tasks from the file of the list, replays its journal and starts journaling further changes.
+     *
+     * @return Summary of the load, including samples of malformed lines
+     */
+    public String load() {
+        return load(percent -> { });
+    }
+
+    /**
+     * Loads the tasks from the file of the list, replays its journal and starts journaling further changes.
+     *
+     * @param progress receives the percentage of the load that is done, possibly from several threads
+     * @return Summary of the load, including samples of malformed lines
+     */
+    public String load(IntConsumer progress) {
+        if (path == null) {
+            return "";
+        }
+        LoadEvent event = new LoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        StringBuilder result = new StringBuilder();
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Journal.recover(path);
+        } catch (IOException exception) {
+            result.append("Error: Failed to recover interrupted compaction of ").append(path).append("\n");
+        }
+        long size = 0;
+        try {
+            size = Files.size(path);
+            TaskLoader.Result loaded = TaskLoader.load(path, new ProgressReporter(progress, 0, DECODE_PERCENT, size));
+            addAll(loaded.tasks(), new ProgressReporter(progress, DECODE_PERCENT, 100, loaded.tasks().size()));
+            taskList.reserveIdsBelow(loaded.nextId());
+            result.append(loaded.summary());
+        } catch (NoSuchFileException exception) {
+            result.append("Note: Tasks ").append(path).append(" not found. Starting from scratch...\n");
+        } catch (Exception exception) {
+            metrics.getLoads().recordFailure();
+            isLoadFailed = true;
+            result.append("Error: Failed to load tasks from ").append(path).append(" (")
+                    .append(exception.getMessage()).append("). The file is left as it is, and changes to list ")
+                    .append(name).append(" will not be saved.\n");
+            loadSummary = result.toString();
+            return loadSummary;
+        }
+        openJournal(result);
+        metrics.getLoads().record(size, System.nanoTime() - start);
+        LoadEvent.commit(event, name, path, taskList.size(), size);
+        loadSummary = result.toString();
+        return loadSummary;
+    }
+
+    private void addAll(List<Task> tasks, ProgressReporter progress) {
+        for (int start = 0; start < tasks.size(); start += PROGRESS_BATCH) {
+            int end = Math.min(start + PROGRESS_BATCH, tasks.size());
+            for (Task task : tasks.subList(start, end)) {
+                taskList.add(task);
+            }
+            progress.advance(end - start);
+        }
+    }
+
+    private void openJournal(StringBuilder result) {
+        try {
+            int replayed = Journal.replay(path, taskList);
+            if (replayed > 0) {
+                Journal.checkpoint(path, taskList);
+                result.append("Replayed ").append(replayed).append(" journaled changes.\n");
+            }
+            journal = new Journal(path, taskList, metrics.getSaves());
+            taskList.addListener(journal);
+        } catch (IOException exception) {
+            result.append("Error: Failed to open journal of ").append(path)
+                    .append(". Changes will only be saved on exit.\n");
+        }
+    }
+
+    /**
+     * Starts saving the list in the background whenever a burst of changes has settled.
+     *
+     * @param debounceMs length of the debounce window in milliseconds
+     */
+    public void startAutosave(long debounceMs) {
+        if (path == null || autosaver != null || isLoadFailed) {
+            return;
+        }
+        autosaveMs = debounceMs;
+        autosaver = new Autosaver(path, taskList, journal, debounceMs, metrics.getSaves());
+        taskList.addListener(autosaver);
+    }
+
+    /**
+     * Saves the list into its file as a binary snapshot, which supersedes its journal, then stops autosave and
+     * journaling; changes made afterwards are only kept in memory. If the save fails, autosave and journaling
+     * carry on as before, so that the list can be saved again later without losing changes.
+     *
+     * @return true if the list was saved, or has no file to be saved to
+     */
+    public boolean save() {
+        if (path == null) {
+            return true;
+        }
+        if (isLoadFailed) {
+            System.err.println("Error: Not saving list " + name + " over " + path + ", which failed to load.");
+            return false;
+        }
+        if (autosaver != null) {
+            // Stopped first, so that it cannot write the file at the same time
+            taskList.removeListener(autosaver);
+            autosaver.close();
+            autosaver = null;
+        }
+        // The journal keeps recording until the snapshot is on disk, so a failed save loses nothing
+        boolean isSaved = journal != null ? journal.checkpointNow("save") : writeSnapshot();
+        if (!isSaved) {
+            lastSaveFailure = System.nanoTime();
+            System.err.println("Error: Failed to write tasks to " + path + ".");
+            if (autosaveMs >= 0) {
+                startAutosave(autosaveMs);
+            }
+            return false;
+        }
+        if (journal != null) {
+            // Detach first, so that no change from another session reaches a journal that is shutting down.
+            // Changes made since the snapshot stay in the journal file and are replayed on the next load.
+            taskList.removeListener(journal);
+            journal.close();
+            journal = null;
+        }
+        return true;
+    }
+
+    private boolean writeSnapshot() {
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            TaskSnapshot snapshot = taskList.snapshot();
+            long written = TaskWriter.writeBinary(path, snapshot);
+            metrics.getSaves().record(written, System.nanoTime() - start);
+            SaveEvent.commit(event, path, "save", snapshot.size(), written);
+            return true;
+        } catch (IOException exception) {
+            metrics.getSaves().recordFailure();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package iris.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import iris.task.Task;
+
+/**
+ * Loads task files in either format, preserving the original task order.
+ * Binary snapshots are decoded block by block in parallel; text files are memory-mapped
+ * in newline-aligned chunks and the chunks are deserialized in parallel.
+ */
+public class TaskLoader {
+    // Chunks are cut at the first newline after this many bytes
+    static final int CHUNK_SIZE = 1 << 20;
+    // Number of malformed lines quoted in the load summary
+    static final int MAX_MALFORMED_SAMPLES = 3;
+
+    private static final byte NEWLINE = '\n';
+
+    private TaskLoader() {
+    }
+
+    /**
+     * Outcome of loading a task file.
+     *
+     * @param tasks            successfully deserialized tasks in file order
+     * @param malformedCount   number of lines that could not be deserialized
+     * @param malformedSamples the first few malformed lines
+     * @param nextId           lowest ID the saved list had not given out yet, or 0 if the file does not record it
+     */
+    public record Result(List<Task> tasks, int malformedCount, List<String> malformedSamples, long nextId) {
+        /**
+         * Returns a short human-readable summary of the load.
+         *
+         * @return summary message
+         */
+        public String summary() {
+            StringBuilder result = new StringBuilder();
+            result.append("Loaded ").append(tasks.size()).append(" tasks.\n");
+            if (malformedCount > 0) {
+                result.append("Skipped ").append(malformedCount).append(" malformed lines, e.g.:\n");
+                for (String sample : malformedSamples) {
+                    result.append("  ").append(sample).append("\n");
+                }
+            }
+            return result.toString();
+        }
+
+        // Joins the results of consecutive parts of a file, copying every task once into a list sized to the total
+        static Result concat(List<Result> parts) {
+            int taskCount = 0;
+            int malformedCount = 0;
+            long nextId = 0;
+            for (Result part : parts) {
+                taskCount += part.tasks.size();
+                malformedCount += part.malformedCount;
+                nextId = Math.max(nextId, part.nextId);
+            }
+            List<Task> tasks = new ArrayList<>(taskCount);
+            List<String> samples = new ArrayList<>();
+            for (Result part : parts) {
+                tasks.addAll(part.tasks);
+                for (String sample : part.malformedSamples) {
+                    if (samples.size() >= MAX_MALFORMED_SAMPLES) {
+                        break;
+                    }
+                    samples.add(sample);
+                }
+            }
+            return new Result(tasks, malformedCount, samples, nextId);
+        }
+    }
+
+    /**
+     * Loads all tasks from the given file, detecting its format.
+     *
+     * @param path file to load
+     * @return loaded tasks and a record of malformed lines or blocks
+     * @throws IOException if the file cannot be read
+     */
+    public static Result load(Path path) throws IOException {
+        return load(path, new ProgressReporter(percent -> { }, 0, 0, 0));
+    }
+
+    /**
+     * Loads all tasks from the given file, detecting its format, and counts every decoded byte as done.
+     *
+     * @param path     file to load
+     * @param progress progress of the load, measured in bytes of the file
+     * @return loaded tasks and a record of malformed lines or blocks
+     * @throws IOException if the file cannot be read
+     */
+    static Result load(Path path, ProgressReporter progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (BinaryFormat.isBinary(channel)) {
+                return BinaryFormat.decode(channel, progress);
+            }
+            long[] boundaries = findChunkBoundaries(channel);
+            Result[] chunks = new Result[boundaries.length - 1];
+            ForkJoinPool.commonPool().invoke(new ChunkTask(channel, boundaries, 0, chunks.length, progress, chunks));
+            return Result.concat(Arrays.asList(chunks));
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    // Returns the start offset of every chunk followed by the file size
+    private static long[] findChunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = CHUNK_SIZE;
+        while (position < size) {
+            long lineEnd = findNewline(channel, position, probe);
+            if (lineEnd < 0 || lineEnd + 1 >= size) {
+                break;
+            }
+            boundaries.add(lineEnd + 1);
+            position = lineEnd + 1 + CHUNK_SIZE;
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long findNewline(FileChannel channel, long from, ByteBuffer probe) throws IOException {
+        long position = from;
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return -1;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == NEWLINE) {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private static Result deserializeChunk(FileChannel channel, long start, long end) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        List<String> samples = new ArrayList<>();
+        int malformed = 0;
+        if (end <= start) {
+            return new Result(tasks, 0, samples, 0);
+        }
+        MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+        int lineStart = 0;
+        int length = chars.length();
+        for (int i = 0; i <= length; i++) {
+            if (i < length && chars.get(i) != '\n') {
+                continue;
+            }
+            int lineEnd = i > lineStart && chars.get(i - 1) == '\r' ? i - 1 : i;
+            if (lineEnd > lineStart || i < length) {
+                String line = chars.subSequence(lineStart, lineEnd).toString();
+                Task task = Task.deserialize(line);
+                if (task != null) {
+                    tasks.add(task);
+                } else {
+                    malformed++;
+                    if (samples.size() < MAX_MALFORMED_SAMPLES) {
+                        samples.add(line);
+                    }
+                }
+            }
+            lineStart = i + 1;
+        }
+        return new Result(tasks, malformed, samples, 0);
+    }
+
+    // Splits the chunk range in halves until a single chunk remains, whose result is stored at its index
+    private static class ChunkTask extends RecursiveAction {
+        private final transient FileChannel channel;
+        private final long[] boundaries;
+        private final int from;
+        private final int to;
+        private final transient ProgressReporter progress;
+        private final Result[] results;
+
+        ChunkTask(FileChannel channel, long[] boundaries, int from, int to, ProgressReporter progress,
+                Result[] results) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+            this.progress = progress;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                try {
+                    results[from] = deserializeChunk(channel, boundaries[from], boundaries[to]);
+                    progress.advance(boundaries[to] - boundaries[from]);
+                    return;
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(channel, boundaries, from, middle, progress, results),
+                    new ChunkTask(channel, boundaries, middle, to, progress, results));
+        }
+    }
+}
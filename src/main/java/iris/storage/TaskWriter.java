@@ -0,0 +1,84 @@
+package iris.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+import iris.task.Task;
+import iris.task.TaskSnapshot;
+
+/**
+ * Writes task files atomically, either as binary snapshots or in the line-based text format.
+ */
+public final class TaskWriter {
+    private TaskWriter() {
+    }
+
+    /**
+     * Writes the tasks as a binary snapshot.
+     *
+     * @param target   file to write
+     * @param snapshot tasks in list order
+     * @return number of bytes written
+     * @throws IOException if the file cannot be written
+     */
+    public static long writeBinary(Path target, TaskSnapshot snapshot) throws IOException {
+        ByteBuffer content = encodeBinary(snapshot);
+        long length = content.remaining();
+        write(target, content);
+        return length;
+    }
+
+    /**
+     * Writes the tasks in the text format, one serialized task per line without its ID, so that
+     * the file reads like one written before tasks had IDs and imported tasks get fresh IDs.
+     *
+     * @param target file to write
+     * @param tasks  tasks in list order
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeText(Path target, Collection<Task> tasks) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (Task task : tasks) {
+            content.append(task.serializeWithoutId()).append(System.lineSeparator());
+        }
+        write(target, ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Encodes the tasks as a binary snapshot image, to be written later with {@link #write}.
+     *
+     * @param snapshot tasks in list order
+     * @return buffer holding the complete file contents
+     */
+    public static ByteBuffer encodeBinary(TaskSnapshot snapshot) {
+        return BinaryFormat.encode(snapshot);
+    }
+
+    /**
+     * Writes the content to a temporary file, fsyncs it and atomically renames it to the target,
+     * so the file only becomes visible under its final name once it is fully on disk.
+     *
+     * @param target  file to write
+     * @param content bytes to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path target, ByteBuffer content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = content.duplicate();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,132 @@
+package iris.task;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Task store that keeps every field in a primitive column instead of one object per task.
+ * Descriptions are pooled in a {@link DescriptionArena}, and dates are stored as epoch days.
+ * {@link #get} materializes a short-lived task object, so callers see ordinary tasks,
+ * but changes to the completion status must go through {@link #setDone}.
+ */
+class ColumnarTaskStore implements TaskStore {
+    private final BitSet live = new BitSet();
+    private final BitSet done = new BitSet();
+    private DescriptionArena arena = new DescriptionArena();
+    private long[] ids;
+    private byte[] types;
+    private int[] descriptions;
+    private int[] startDays;
+    private int[] endDays;
+
+    ColumnarTaskStore(int capacity) {
+        ids = new long[capacity];
+        types = new byte[capacity];
+        descriptions = new int[capacity];
+        startDays = new int[capacity];
+        endDays = new int[capacity];
+    }
+
+    @Override
+    public int capacity() {
+        return ids.length;
+    }
+
+    /**
+     * Changes the number of slots and rebuilds the description pool if removed tasks
+     * have left it holding more descriptions than there are live tasks.
+     *
+     * @param capacity new number of slots
+     */
+    @Override
+    public void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        startDays = Arrays.copyOf(startDays, capacity);
+        endDays = Arrays.copyOf(endDays, capacity);
+        live.clear(capacity, Integer.MAX_VALUE);
+        done.clear(capacity, Integer.MAX_VALUE);
+        if (arena.size() > live.cardinality()) {
+            repool();
+        }
+    }
+
+    // Drops the descriptions that no live task refers to
+    private void repool() {
+        DescriptionArena repooled = new DescriptionArena();
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            descriptions[slot] = repooled.intern(arena.get(descriptions[slot]));
+        }
+        arena = repooled;
+    }
+
+    @Override
+    public void set(int slot, Task task) {
+        ids[slot] = task.getId();
+        types[slot] = TaskCodec.typeOf(task);
+        descriptions[slot] = arena.intern(task.getDescription());
+        LocalDate start = task.getStartDate();
+        startDays[slot] = start == null ? 0 : Math.toIntExact(start.toEpochDay());
+        endDays[slot] = start == null ? 0 : Math.toIntExact(task.getEndDate().toEpochDay());
+        done.set(slot, task.isDone());
+        live.set(slot);
+    }
+
+    @Override
+    public Task get(int slot) {
+        if (!live.get(slot)) {
+            return null;
+        }
+        String description = arena.get(descriptions[slot]);
+        Task task = switch (types[slot]) {
+        case TaskCodec.DEADLINE -> new Deadline(description, LocalDate.ofEpochDay(startDays[slot]));
+        case TaskCodec.EVENT -> new Event(description, LocalDate.ofEpochDay(startDays[slot]),
+                LocalDate.ofEpochDay(endDays[slot]));
+        case TaskCodec.DO_AFTER -> new DoAfter(description, LocalDate.ofEpochDay(startDays[slot]));
+        default -> new Todo(description);
+        };
+        task.setId(ids[slot]);
+        task.setDone(done.get(slot));
+        return task;
+    }
+
+    @Override
+    public boolean isLive(int slot) {
+        return live.get(slot);
+    }
+
+    @Override
+    public long idAt(int slot) {
+        return ids[slot];
+    }
+
+    @Override
+    public boolean isDoneAt(int slot) {
+        return done.get(slot);
+    }
+
+    @Override
+    public void setDone(int slot, boolean isDone) {
+        done.set(slot, isDone);
+    }
+
+    @Override
+    public void clear(int slot) {
+        live.clear(slot);
+        done.clear(slot);
+    }
+
+    @Override
+    public void move(int from, int to) {
+        ids[to] = ids[from];
+        types[to] = types[from];
+        descriptions[to] = descriptions[from];
+        startDays[to] = startDays[from];
+        endDays[to] = endDays[from];
+        done.set(to, done.get(from));
+        live.set(to);
+        clear(from);
+    }
+}
@@ -0,0 +1,265 @@
+package iris.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Radix tree of weighted words that suggests the heaviest completions of a prefix.
+ * Every node caches the heaviest words below it, so a lookup only walks the prefix and
+ * takes time proportional to its length, however many words share it. Adding a word
+ * updates the caches along its path in place; removing one rebuilds them from the children.
+ * Not thread-safe; the owner must serialize access.
+ */
+public class CompletionTrie {
+    // Number of completions cached per node, and so the most a lookup can return
+    public static final int MAX_SUGGESTIONS = 8;
+
+    private static final Node[] NO_NODES = new Node[0];
+
+    private final Node root = new Node("");
+    private int size;
+
+    private static final class Node {
+        // Characters on the edge from the parent into this node
+        private String edge;
+        // Sorted by the first character of their edges
+        private Node[] children = NO_NODES;
+        // Word that ends at this node, or null
+        private String word;
+        private int weight;
+        // Heaviest words in this subtree, as their nodes, heaviest first
+        private Node[] top = NO_NODES;
+
+        Node(String edge) {
+            this.edge = edge;
+        }
+
+        int indexOfChild(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char key = children[middle].edge.charAt(0);
+                if (key < first) {
+                    low = middle + 1;
+                } else if (key > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void insertChild(int position, Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, position);
+            grown[position] = child;
+            System.arraycopy(children, position, grown, position + 1, children.length - position);
+            children = grown;
+        }
+
+        void removeChild(int position) {
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, position);
+            System.arraycopy(children, position + 1, shrunk, position, shrunk.length - position);
+            children = shrunk;
+        }
+    }
+
+    /**
+     * Returns the number of distinct words in the trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds one occurrence of a word, making it a heavier suggestion.
+     *
+     * @param word non-empty word
+     */
+    public void add(String word) {
+        assert !word.isEmpty() : "Cannot add an empty word";
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int depth = 0;
+        while (depth < word.length()) {
+            int position = node.indexOfChild(word.charAt(depth));
+            if (position < 0) {
+                Node leaf = new Node(word.substring(depth));
+                node.insertChild(-position - 1, leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[position];
+            int common = commonPrefixLength(child.edge, word, depth);
+            if (common < child.edge.length()) {
+                child = split(node, position, common);
+            }
+            node = child;
+            path.add(node);
+            depth += common;
+        }
+        if (node.word == null) {
+            node.word = word;
+            size++;
+        }
+        node.weight++;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            if (!promote(path.get(i), node)) {
+                // Ancestors further up cache words at least as heavy, so the word cannot get into theirs either
+                break;
+            }
+        }
+    }
+
+    /**
+     * Removes one occurrence of a word; the word is forgotten once its last occurrence is removed.
+     *
+     * @param word word added before; other words are ignored
+     */
+    public void remove(String word) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int depth = 0;
+        while (depth < word.length()) {
+            int position = node.indexOfChild(word.charAt(depth));
+            if (position < 0 || !word.startsWith(node.children[position].edge, depth)) {
+                return;
+            }
+            node = node.children[position];
+            path.add(node);
+            depth += node.edge.length();
+        }
+        if (node.word == null) {
+            return;
+        }
+        if (--node.weight == 0) {
+            node.word = null;
+            size--;
+            prune(path);
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            rebuildTop(path.get(i));
+        }
+    }
+
+    /**
+     * Returns the heaviest words that start with the given prefix, heaviest first and
+     * alphabetically among equally heavy ones.
+     *
+     * @param prefix prefix to complete
+     * @param limit  maximum number of words, at most {@link #MAX_SUGGESTIONS}
+     * @return matching words, including the prefix itself if it is a word
+     */
+    public List<String> complete(String prefix, int limit) {
+        Node node = root;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            int position = node.indexOfChild(prefix.charAt(depth));
+            if (position < 0) {
+                return List.of();
+            }
+            node = node.children[position];
+            int compared = Math.min(node.edge.length(), prefix.length() - depth);
+            if (!node.edge.regionMatches(0, prefix, depth, compared)) {
+                return List.of();
+            }
+            depth += compared;
+        }
+        int count = Math.min(Math.min(limit, MAX_SUGGESTIONS), node.top.length);
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(node.top[i].word);
+        }
+        return result;
+    }
+
+    private static int commonPrefixLength(String edge, String word, int offset) {
+        int length = Math.min(edge.length(), word.length() - offset);
+        int common = 0;
+        while (common < length && edge.charAt(common) == word.charAt(offset + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    // Splits the edge into the given child after its first characters, returning the new middle node
+    private static Node split(Node parent, int position, int length) {
+        Node child = parent.children[position];
+        Node middle = new Node(child.edge.substring(0, length));
+        child.edge = child.edge.substring(length);
+        middle.children = new Node[] {child};
+        middle.top = child.top.clone();
+        parent.children[position] = middle;
+        return middle;
+    }
+
+    // Detaches the emptied node at the end of the path and merges ancestors left with a single child
+    private void prune(List<Node> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            Node parent = path.get(i - 1);
+            if (node.word != null) {
+                return;
+            }
+            int position = parent.indexOfChild(node.edge.charAt(0));
+            if (node.children.length == 0) {
+                parent.removeChild(position);
+            } else if (node.children.length == 1) {
+                Node child = node.children[0];
+                child.edge = node.edge + child.edge;
+                parent.children[position] = child;
+                return;
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Moves the word of a node that just got heavier into place among the cached words of an ancestor,
+    // returning false if it is not heavy enough to be cached there
+    private static boolean promote(Node ancestor, Node heavier) {
+        Node[] top = ancestor.top;
+        int position = top.length - 1;
+        while (position >= 0 && top[position] != heavier) {
+            position--;
+        }
+        if (position < 0) {
+            if (top.length < MAX_SUGGESTIONS) {
+                top = Arrays.copyOf(top, top.length + 1);
+            } else if (!ranksBefore(heavier, top[top.length - 1])) {
+                return false;
+            }
+            position = top.length - 1;
+            top[position] = heavier;
+        }
+        while (position > 0 && ranksBefore(heavier, top[position - 1])) {
+            top[position] = top[position - 1];
+            top[--position] = heavier;
+        }
+        ancestor.top = top;
+        return true;
+    }
+
+    private static void rebuildTop(Node node) {
+        List<Node> candidates = new ArrayList<>();
+        if (node.word != null) {
+            candidates.add(node);
+        }
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort((left, right) -> ranksBefore(left, right) ? -1 : ranksBefore(right, left) ? 1 : 0);
+        node.top = candidates.subList(0, Math.min(candidates.size(), MAX_SUGGESTIONS)).toArray(NO_NODES);
+    }
+
+    private static boolean ranksBefore(Node left, Node right) {
+        return left.weight > right.weight || left.weight == right.weight && left.word.compareTo(right.word) < 0;
+    }
+}
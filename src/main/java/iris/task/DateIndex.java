@@ -0,0 +1,179 @@
+package iris.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Interval index over the dates of dated tasks, keyed by task ID.
+ * Each task spans the epoch days from its start date to its end date; the intervals are kept
+ * in a treap ordered by start day and then ID, and augmented with the maximum end day of every
+ * subtree, so that overlap queries run in O(log n + k). Since that order is derived from the
+ * task itself, removals find their node by search and no node lookup table is needed.
+ */
+public class DateIndex implements TaskListener {
+    private final Random random = new Random();
+    private Node root;
+    private int size;
+
+    private static class Node {
+        private final long taskId;
+        private final long start;
+        private final long end;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long taskId, long start, long end, int priority) {
+            this.taskId = taskId;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        boolean isBefore(long otherStart, long otherTaskId) {
+            return start < otherStart || (start == otherStart && taskId < otherTaskId);
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null) {
+                maxEnd = Math.max(maxEnd, left.maxEnd);
+            }
+            if (right != null) {
+                maxEnd = Math.max(maxEnd, right.maxEnd);
+            }
+        }
+    }
+
+    @Override
+    public void taskAdded(int index, Task task) {
+        LocalDate startDate = task.getStartDate();
+        if (startDate == null) {
+            return;
+        }
+        long start = startDate.toEpochDay();
+        long end = task.getEndDate().toEpochDay();
+        Node node = new Node(task.getId(), Math.min(start, end), Math.max(start, end), random.nextInt());
+        root = insert(root, node);
+        size++;
+    }
+
+    @Override
+    public void taskRemoved(int index, Task task) {
+        LocalDate startDate = task.getStartDate();
+        if (startDate == null) {
+            return;
+        }
+        long start = Math.min(startDate.toEpochDay(), task.getEndDate().toEpochDay());
+        root = delete(root, start, task.getId());
+        size--;
+    }
+
+    @Override
+    public void taskUpdated(int index, Task task) {
+        // Dates never change, so there is nothing to reindex
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the IDs of the tasks whose date range overlaps the given range.
+     *
+     * @param from first day of the range, inclusive
+     * @param to   last day of the range, inclusive
+     * @return overlapping task IDs ordered by start date
+     */
+    public List<Long> findOverlapping(LocalDate from, LocalDate to) {
+        List<Long> result = new ArrayList<>();
+        collect(root, from.toEpochDay(), to.toEpochDay(), result);
+        return result;
+    }
+
+    private static void collect(Node node, long from, long to, List<Long> result) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.start > to) {
+            return;
+        }
+        if (node.end >= from) {
+            result.add(node.taskId);
+        }
+        collect(node.right, from, to, result);
+    }
+
+    private static Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+        if (node.isBefore(root.start, root.taskId)) {
+            root.left = insert(root.left, node);
+            if (root.left.priority > root.priority) {
+                root = rotateRight(root);
+            }
+        } else {
+            root.right = insert(root.right, node);
+            if (root.right.priority > root.priority) {
+                root = rotateLeft(root);
+            }
+        }
+        root.update();
+        return root;
+    }
+
+    private static Node delete(Node root, long start, long taskId) {
+        assert root != null : "Removed task was never indexed";
+        if (root.start == start && root.taskId == taskId) {
+            return merge(root.left, root.right);
+        }
+        if (root.isBefore(start, taskId)) {
+            root.right = delete(root.right, start, taskId);
+        } else {
+            root.left = delete(root.left, start, taskId);
+        }
+        root.update();
+        return root;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+}
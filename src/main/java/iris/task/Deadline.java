@@ -7,6 +7,8 @@ import java.time.format.DateTimeParseException;
  * Represents a Deadline task with a description and a deadline date.
  */
 public class Deadline extends Task {
+    private static final FlagParser PARSER = new FlagParser(FLAG_BY);
+
     private final LocalDate deadline;
 
     /**
@@ -20,15 +22,21 @@ public class Deadline extends Task {
         this.deadline = deadline;
     }
 
+    @Override
+    public LocalDate getStartDate() {
+        return deadline;
+    }
+
     /**
-     * Returns a string representation of the Deadline task.
+     * Renders the display line of the Deadline task.
      *
      * @return string representation
      */
-    public String toString() {
+    @Override
+    protected String render() {
         return String.format(
                 "[D]%s (by: %s)",
-                super.toString(),
+                super.render(),
                 deadline.format(DATE_STORAGE)
         );
     }
@@ -41,38 +49,10 @@ public class Deadline extends Task {
      * @throws TaskException on invalid argument
      */
     public static Deadline generateDeadline(String argument) throws TaskException {
-        if (argument == null) {
-            throw new TaskException(TaskExceptionType.NO_ARGUMENTS_PROVIDED);
-        }
-        String description = null;
-        String by = null;
-        String[] split = argument.split(
-                makeSplitRegex(new String[]{FLAG_BY})
-        );
-        String capturing = "description";
-        for (String items : split) {
-            items = items.trim();
-            if (capturing != null) {
-                if (capturing.equals("description")) {
-                    description = items;
-                } else if (capturing.equals("by")) {
-                    by = items;
-                }
-                capturing = null;
-            } else {
-                if (items.equals(FLAG_BY)) {
-                    capturing = "by";
-                } else {
-                    throw new TaskException(TaskExceptionType.UNRECOGNIZED_ARGUMENT);
-                }
-            }
-        }
-        if (description == null || by == null) {
-            throw new TaskException(TaskExceptionType.ARGUMENTS_MISSING);
-        }
+        String[] values = PARSER.parse(argument);
         try {
-            LocalDate deadlineDate = LocalDate.parse(by, DATE_INPUT);
-            return new Deadline(description, deadlineDate);
+            LocalDate deadlineDate = LocalDate.parse(values[1], DATE_INPUT);
+            return new Deadline(values[0], deadlineDate);
         } catch (DateTimeParseException exception) {
             throw new TaskException(TaskExceptionType.INVALID_DATE_FORMAT);
         }
@@ -84,7 +64,7 @@ public class Deadline extends Task {
      * @return Serialized string
      */
     @Override
-    public String serialize() {
-        return String.format("DEADLINE|%b|%s|%s", isDone, description, deadline.format(DATE_STORAGE));
+    protected String serializeFields() {
+        return String.format("DEADLINE|%b|%s|%s", isDone, escape(description), deadline.format(DATE_STORAGE));
     }
 }
@@ -0,0 +1,67 @@
+package iris.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Index of the unfinished deadlines by the epoch day they are due, so that the overdue ones are found
+ * in O(log n + k) without looking at finished deadlines or other dated tasks. Deadlines enter and
+ * leave the index as they are marked and unmarked.
+ */
+class DeadlineIndex implements TaskListener {
+    private final TreeMap<Long, LongSet> idsByDueDay = new TreeMap<>();
+
+    @Override
+    public void taskAdded(int index, Task task) {
+        if (task instanceof Deadline && !task.isDone()) {
+            idsByDueDay.computeIfAbsent(dueDayOf(task), day -> new LongSet()).add(task.getId());
+        }
+    }
+
+    @Override
+    public void taskRemoved(int index, Task task) {
+        if (task instanceof Deadline) {
+            remove(task);
+        }
+    }
+
+    @Override
+    public void taskUpdated(int index, Task task) {
+        if (!(task instanceof Deadline)) {
+            return;
+        }
+        if (task.isDone()) {
+            remove(task);
+        } else {
+            taskAdded(index, task);
+        }
+    }
+
+    /**
+     * Returns the IDs of the unfinished deadlines due before the given day.
+     *
+     * @param day first day that is not yet overdue
+     * @return task IDs, earliest due first
+     */
+    List<Long> findDueBefore(LocalDate day) {
+        List<Long> result = new ArrayList<>();
+        for (LongSet ids : idsByDueDay.headMap(day.toEpochDay()).values()) {
+            ids.forEach(result::add);
+        }
+        return result;
+    }
+
+    private void remove(Task task) {
+        long dueDay = dueDayOf(task);
+        LongSet ids = idsByDueDay.get(dueDay);
+        if (ids != null && ids.remove(task.getId()) && ids.isEmpty()) {
+            idsByDueDay.remove(dueDay);
+        }
+    }
+
+    private static long dueDayOf(Task task) {
+        return task.getStartDate().toEpochDay();
+    }
+}
@@ -0,0 +1,110 @@
+package iris.task;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only pool of UTF-8 encoded descriptions.
+ * Equal descriptions are stored once and share a reference, which is an index into the pool.
+ */
+class DescriptionArena {
+    private static final int NO_ENTRY = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY * 16];
+    private int byteCount;
+    // Entry i occupies bytes[starts[i]] up to bytes[starts[i + 1]]
+    private int[] starts = new int[INITIAL_CAPACITY + 1];
+    private int entryCount;
+    // Open-addressing table of entry references, keyed by the hash of their bytes
+    private int[] table = newTable(INITIAL_CAPACITY * 2);
+
+    int size() {
+        return entryCount;
+    }
+
+    int byteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Returns the reference of the given description, adding it to the pool if it is new.
+     *
+     * @param description description to intern
+     * @return reference to the pooled description
+     */
+    int intern(String description) {
+        byte[] encoded = description.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(encoded, 0, encoded.length);
+        int mask = table.length - 1;
+        int i = hash & mask;
+        for (; table[i] != NO_ENTRY; i = (i + 1) & mask) {
+            if (equalsEntry(table[i], encoded)) {
+                return table[i];
+            }
+        }
+        int reference = append(encoded);
+        table[i] = reference;
+        if (entryCount * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return reference;
+    }
+
+    /**
+     * Decodes a pooled description.
+     *
+     * @param reference reference returned by {@link #intern}
+     * @return the description
+     */
+    String get(int reference) {
+        int start = starts[reference];
+        return new String(bytes, start, starts[reference + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    private int append(byte[] encoded) {
+        if (byteCount + encoded.length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, byteCount + encoded.length));
+        }
+        if (entryCount + 2 > starts.length) {
+            starts = Arrays.copyOf(starts, starts.length * 2);
+        }
+        System.arraycopy(encoded, 0, bytes, byteCount, encoded.length);
+        byteCount += encoded.length;
+        starts[entryCount + 1] = byteCount;
+        return entryCount++;
+    }
+
+    private boolean equalsEntry(int reference, byte[] encoded) {
+        int start = starts[reference];
+        int end = starts[reference + 1];
+        return Arrays.equals(bytes, start, end, encoded, 0, encoded.length);
+    }
+
+    private void rehash(int capacity) {
+        table = newTable(capacity);
+        int mask = capacity - 1;
+        for (int reference = 0; reference < entryCount; reference++) {
+            int start = starts[reference];
+            int i = hash(bytes, start, starts[reference + 1] - start) & mask;
+            while (table[i] != NO_ENTRY) {
+                i = (i + 1) & mask;
+            }
+            table[i] = reference;
+        }
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, NO_ENTRY);
+        return table;
+    }
+
+    private static int hash(byte[] data, int start, int length) {
+        int hash = 1;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + data[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -7,6 +7,8 @@ import java.time.format.DateTimeParseException;
  * Represents a task that should be done after a specific date.
  */
 public class DoAfter extends Task {
+    private static final FlagParser PARSER = new FlagParser(FLAG_AFTER);
+
     private final LocalDate after;
 
     /**
@@ -21,10 +23,15 @@ public class DoAfter extends Task {
     }
 
     @Override
-    public String toString() {
+    public LocalDate getStartDate() {
+        return after;
+    }
+
+    @Override
+    protected String render() {
         return String.format(
                 "[A]%s (after: %s)",
-                super.toString(),
+                super.render(),
                 after.format(DATE_STORAGE)
         );
     }
@@ -37,38 +44,10 @@ public class DoAfter extends Task {
      * @throws TaskException on invalid argument
      */
     public static DoAfter generateDoAfter(String argument) throws TaskException {
-        if (argument == null) {
-            throw new TaskException(TaskExceptionType.NO_ARGUMENTS_PROVIDED);
-        }
-        String description = null;
-        String afterStr = null;
-        String[] split = argument.split(
-                makeSplitRegex(new String[]{FLAG_AFTER})
-        );
-        String capturing = "description";
-        for (String item : split) {
-            item = item.trim();
-            if (capturing != null) {
-                if (capturing.equals("description")) {
-                    description = item;
-                } else if (capturing.equals("after")) {
-                    afterStr = item;
-                }
-                capturing = null;
-            } else {
-                if (item.equals(FLAG_AFTER)) {
-                    capturing = "after";
-                } else {
-                    throw new TaskException(TaskExceptionType.UNRECOGNIZED_ARGUMENT);
-                }
-            }
-        }
-        if (description == null || afterStr == null) {
-            throw new TaskException(TaskExceptionType.ARGUMENTS_MISSING);
-        }
+        String[] values = PARSER.parse(argument);
         try {
-            LocalDate afterDate = LocalDate.parse(afterStr, DATE_INPUT);
-            return new DoAfter(description, afterDate);
+            LocalDate afterDate = LocalDate.parse(values[1], DATE_INPUT);
+            return new DoAfter(values[0], afterDate);
         } catch (DateTimeParseException exception) {
             throw new TaskException(TaskExceptionType.INVALID_DATE_FORMAT);
         }
@@ -80,7 +59,7 @@ public class DoAfter extends Task {
      * @return Serialized string
      */
     @Override
-    public String serialize() {
-        return String.format("DOAFTER|%b|%s|%s", isDone, description, after.format(DATE_STORAGE));
+    protected String serializeFields() {
+        return String.format("DOAFTER|%b|%s|%s", isDone, escape(description), after.format(DATE_STORAGE));
     }
 }
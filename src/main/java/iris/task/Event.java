@@ -10,10 +10,7 @@ public class Event extends Task {
     private final LocalDate from;
     private final LocalDate to;
 
-    // Helper to improve readability of parsing state
-    private enum Capturing {
-        DESCRIPTION, FROM, TO
-    }
+    private static final FlagParser PARSER = new FlagParser(FLAG_FROM, FLAG_TO);
 
     /**
      * Constructs an Event iris.task.
@@ -28,15 +25,26 @@ public class Event extends Task {
         this.to = to;
     }
 
+    @Override
+    public LocalDate getStartDate() {
+        return from;
+    }
+
+    @Override
+    public LocalDate getEndDate() {
+        return to;
+    }
+
     /**
-     * Returns a string representation of the Event iris.task.
+     * Renders the display line of the Event iris.task.
      *
      * @return String representation
      */
-    public String toString() {
+    @Override
+    protected String render() {
         return String.format(
                 "[E]%s (from: %s to: %s)",
-                super.toString(),
+                super.render(),
                 from.format(DATE_STORAGE),
                 to.format(DATE_STORAGE)
         );
@@ -50,53 +58,14 @@ public class Event extends Task {
      * @throws TaskException on invalid argument
      */
     public static Event generateEvent(String argument) throws TaskException {
-        if (argument == null) {
-            throw new TaskException(TaskExceptionType.NO_ARGUMENTS_PROVIDED);
-        }
-        String[] split = splitByFlags(argument);
-        ParsedArgs args = parseArgs(split);
-        LocalDate fromDate = parseDate(args.from);
-        LocalDate toDate = parseDate(args.to);
-        return new Event(args.description, fromDate, toDate);
+        String[] values = PARSER.parse(argument);
+        LocalDate fromDate = parseDate(values[1]);
+        LocalDate toDate = parseDate(values[2]);
+        return new Event(values[0], fromDate, toDate);
     }
 
     // --- Helpers (SLAP) ---
 
-    private static String[] splitByFlags(String argument) {
-        return argument.split(makeSplitRegex(new String[]{FLAG_FROM, FLAG_TO}));
-    }
-
-    private static ParsedArgs parseArgs(String[] split) throws TaskException {
-        String description = null;
-        String from = null;
-        String to = null;
-        Capturing capturing = Capturing.DESCRIPTION;
-        for (String raw : split) {
-            String item = raw.trim();
-            if (capturing != null) {
-                switch (capturing) {
-                case DESCRIPTION -> description = item;
-                case FROM -> from = item;
-                case TO -> to = item;
-                default -> throw new TaskException(TaskExceptionType.UNRECOGNIZED_ARGUMENT);
-                }
-                capturing = null;
-            } else {
-                if (item.equals(FLAG_FROM)) {
-                    capturing = Capturing.FROM;
-                } else if (item.equals(FLAG_TO)) {
-                    capturing = Capturing.TO;
-                } else {
-                    throw new TaskException(TaskExceptionType.UNRECOGNIZED_ARGUMENT);
-                }
-            }
-        }
-        if (description == null || from == null || to == null) {
-            throw new TaskException(TaskExceptionType.ARGUMENTS_MISSING);
-        }
-        return new ParsedArgs(description, from, to);
-    }
-
     private static LocalDate parseDate(String value) throws TaskException {
         try {
             return LocalDate.parse(value, DATE_INPUT);
@@ -105,20 +74,17 @@ public class Event extends Task {
         }
     }
 
-    private record ParsedArgs(String description, String from, String to) {
-    }
-
     /**
      * Serializes the Event iris.task into a string for storage.
      *
      * @return Serialized string
      */
     @Override
-    public String serialize() {
+    protected String serializeFields() {
         return String.format(
                 "EVENT|%b|%s|%s|%s",
                 isDone,
-                description,
+                escape(description),
                 from.format(DATE_STORAGE),
                 to.format(DATE_STORAGE)
         );
@@ -0,0 +1,72 @@
+package iris.task;
+
+/**
+ * Binary indexed tree over non-negative counts, supporting prefix sums and
+ * order-statistic lookups in O(log n).
+ */
+class FenwickTree {
+    // 1-based; tree[i] holds the sum of the counts in (i - lowbit(i), i]
+    private final int[] tree;
+
+    FenwickTree(int capacity) {
+        this.tree = new int[capacity + 1];
+    }
+
+    /**
+     * Builds a tree over the given counts in linear time.
+     *
+     * @param counts   count of every index
+     * @param length   number of leading counts to use
+     * @param capacity number of indexes the tree can hold, at least length
+     */
+    FenwickTree(int[] counts, int length, int capacity) {
+        this(capacity);
+        for (int i = 1; i <= capacity; i++) {
+            if (i <= length) {
+                tree[i] += counts[i - 1];
+            }
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    int capacity() {
+        return tree.length - 1;
+    }
+
+    void add(int index, int delta) {
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the sum of the counts at indexes 0 to index, inclusive.
+     */
+    int prefixSum(int index) {
+        int sum = 0;
+        for (int i = index + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the smallest index whose prefix sum is at least k.
+     *
+     * @param k one-based rank, at least 1 and at most the total count
+     */
+    int findByOrder(int k) {
+        int position = 0;
+        for (int step = Integer.highestOneBit(capacity()); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] < k) {
+                position = next;
+                k -= tree[next];
+            }
+        }
+        return position;
+    }
+}
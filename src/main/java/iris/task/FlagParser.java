@@ -0,0 +1,95 @@
+package iris.task;
+
+/**
+ * Single-pass parser for task arguments of the form {@code <description> /flag <value> ...}.
+ * An argument is cut into text segments and flag tokens wherever a flag occurs, and the
+ * segments are assigned to the description and to the preceding flags without any regex.
+ */
+class FlagParser {
+    private static final char FLAG_PREFIX = '/';
+
+    private final String[] flags;
+
+    /**
+     * Creates a parser recognizing the given flags.
+     *
+     * @param flags flag tokens, each starting with '/'
+     */
+    FlagParser(String... flags) {
+        for (String flag : flags) {
+            assert flag.charAt(0) == FLAG_PREFIX : "Flags must start with " + FLAG_PREFIX;
+        }
+        this.flags = flags.clone();
+    }
+
+    /**
+     * Parses the argument into the description followed by the value of each flag.
+     *
+     * @param argument argument string, may be null
+     * @return description at index 0 and the value of flag i at index i + 1, all trimmed
+     * @throws TaskException if the argument is missing, incomplete, or has stray text
+     */
+    String[] parse(String argument) throws TaskException {
+        if (argument == null) {
+            throw new TaskException(TaskExceptionType.NO_ARGUMENTS_PROVIDED);
+        }
+        String[] values = new String[flags.length + 1];
+        // Slot receiving the next token; -1 when a flag is expected instead
+        int capturing = 0;
+        int segmentStart = 0;
+        int length = argument.length();
+        int i = 0;
+        while (i < length) {
+            int flag = argument.charAt(i) == FLAG_PREFIX ? flagAt(argument, i) : -1;
+            if (flag < 0) {
+                i++;
+                continue;
+            }
+            if (i > segmentStart) {
+                capturing = acceptSegment(values, capturing, argument, segmentStart, i);
+            }
+            if (capturing >= 0) {
+                values[capturing] = flags[flag];
+                capturing = -1;
+            } else {
+                capturing = flag + 1;
+            }
+            i += flags[flag].length();
+            segmentStart = i;
+        }
+        if (length > segmentStart) {
+            acceptSegment(values, capturing, argument, segmentStart, length);
+        }
+        for (String value : values) {
+            if (value == null) {
+                throw new TaskException(TaskExceptionType.ARGUMENTS_MISSING);
+            }
+        }
+        return values;
+    }
+
+    private int flagAt(String argument, int index) {
+        for (int f = 0; f < flags.length; f++) {
+            if (argument.startsWith(flags[f], index)) {
+                return f;
+            }
+        }
+        return -1;
+    }
+
+    // Segments never contain a flag, so a segment where a flag is expected is stray text
+    private static int acceptSegment(String[] values, int capturing, String argument, int start, int end)
+            throws TaskException {
+        if (capturing < 0) {
+            throw new TaskException(TaskExceptionType.UNRECOGNIZED_ARGUMENT);
+        }
+        while (start < end && argument.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && argument.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        values[capturing] = argument.substring(start, end);
+        return -1;
+    }
+}
@@ -0,0 +1,153 @@
+package iris.task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index over task descriptions, keyed by task ID.
+ * Whole-word queries are answered from a token index, and a trigram index narrows down
+ * the tasks a {@link TaskQuery} has to score. Trigrams are case-folded, so that the same
+ * index narrows down case-insensitive searches. The tokens are
+ * also kept in a {@link CompletionTrie}, weighted by how often they occur, to complete words.
+ */
+public class KeywordIndex implements TaskListener {
+    // Length of the n-grams used for substring lookups
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<String, LongSet> tokens = new HashMap<>();
+    private final Map<String, LongSet> grams = new HashMap<>();
+    private final CompletionTrie words = new CompletionTrie();
+
+    @Override
+    public void taskAdded(int index, Task task) {
+        String description = task.getDescription();
+        long id = task.getId();
+        for (String token : tokenize(description)) {
+            tokens.computeIfAbsent(token, key -> new LongSet()).add(id);
+            words.add(token);
+        }
+        for (String gram : gramsOf(TaskQuery.fold(description))) {
+            grams.computeIfAbsent(gram, key -> new LongSet()).add(id);
+        }
+    }
+
+    @Override
+    public void taskRemoved(int index, Task task) {
+        String description = task.getDescription();
+        long id = task.getId();
+        for (String token : tokenize(description)) {
+            removeFrom(tokens, token, id);
+            words.remove(token);
+        }
+        for (String gram : gramsOf(TaskQuery.fold(description))) {
+            removeFrom(grams, gram, id);
+        }
+    }
+
+    @Override
+    public void taskUpdated(int index, Task task) {
+        // Descriptions never change, so there is nothing to reindex
+    }
+
+    /**
+     * Returns the IDs of the tasks whose description contains the given word as a whole token.
+     *
+     * @param word word to look up
+     * @return matching task IDs in no particular order
+     */
+    public List<Long> findWord(String word) {
+        List<Long> matches = new ArrayList<>();
+        LongSet posting = tokens.get(word);
+        if (posting != null) {
+            posting.forEach(matches::add);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the most frequent words of the descriptions that start with the given prefix.
+     *
+     * @param prefix prefix to complete
+     * @param limit  maximum number of words, at most {@link CompletionTrie#MAX_SUGGESTIONS}
+     * @return matching words, most frequent first
+     */
+    public List<String> completeWord(String prefix, int limit) {
+        return words.complete(prefix, limit);
+    }
+
+    // A keyword shorter than an n-gram has no posting to narrow its matches down with
+    private static boolean isIndexable(String keyword) {
+        return keyword.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Returns postings whose union holds the IDs of every task that may match the query,
+     * or null if the query has a keyword too short to look up and every task may match.
+     * The union may hold IDs more than once.
+     *
+     * @param query query to narrow down
+     * @return postings not to be modified, or null
+     */
+    List<LongSet> candidatesOf(TaskQuery query) {
+        List<LongSet> result = new ArrayList<>();
+        for (String keyword : query.getKeywords()) {
+            if (!isIndexable(keyword)) {
+                if (query.isAnyKeyword()) {
+                    return null;
+                }
+                continue;
+            }
+            LongSet posting = rarestPosting(keyword);
+            if (query.isAnyKeyword()) {
+                result.add(posting);
+            } else if (result.isEmpty() || posting.size() < result.get(0).size()) {
+                // Every match holds all keywords, so the rarest posting of any one of them will do
+                result = List.of(posting);
+            }
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    // Any task containing the keyword, in any case, is in the posting of each of its trigrams
+    private LongSet rarestPosting(String keyword) {
+        LongSet rarest = null;
+        for (String gram : gramsOf(TaskQuery.fold(keyword))) {
+            LongSet posting = grams.get(gram);
+            if (posting == null) {
+                return new LongSet();
+            }
+            if (rarest == null || posting.size() < rarest.size()) {
+                rarest = posting;
+            }
+        }
+        return rarest;
+    }
+
+    static String[] tokenize(String description) {
+        String trimmed = description.trim();
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return result;
+    }
+
+    private static void removeFrom(Map<String, LongSet> index, String key, long id) {
+        LongSet posting = index.get(key);
+        if (posting == null) {
+            return;
+        }
+        posting.remove(id);
+        if (posting.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
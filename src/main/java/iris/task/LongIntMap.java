@@ -0,0 +1,113 @@
+package iris.task;
+
+/**
+ * Open-addressing hash map from positive longs to ints, used to find the slot of a task
+ * by its ID without boxing either side.
+ */
+class LongIntMap {
+    private static final long EMPTY = 0;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns the value mapped to a key.
+     *
+     * @param key          key to look up
+     * @param defaultValue value to return if the key is absent
+     * @return the mapped value, or the default value
+     */
+    int get(long key, int defaultValue) {
+        int index = indexOf(key);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * Maps a key to a value, replacing any previous value.
+     *
+     * @param key   positive key
+     * @param value value to map the key to
+     */
+    void put(long key, int value) {
+        assert key != EMPTY : "Keys must be non-zero";
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = slotOf(key, mask);
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+    }
+
+    /**
+     * Removes a key, shifting later entries of its probe sequence back so that no tombstones are needed.
+     *
+     * @param key key to remove
+     * @return true if the key was present
+     */
+    boolean remove(long key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return false;
+        }
+        int mask = keys.length - 1;
+        keys[i] = EMPTY;
+        size--;
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slotOf(keys[j], mask);
+            // Move the entry into the hole unless its home slot lies cyclically in (i, j]
+            boolean isHomeBetween = i <= j ? i < home && home <= j : i < home || home <= j;
+            if (!isHomeBetween) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                keys[j] = EMPTY;
+                i = j;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        for (int i = slotOf(key, mask); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int slotOf(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,111 @@
+package iris.task;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing hash set of positive longs, used for index postings so that
+ * each entry costs a single array slot instead of a boxed Long and a hash node.
+ */
+class LongSet {
+    private static final long EMPTY = 0;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds a key to the set.
+     *
+     * @param key positive key
+     * @return true if the key was not present before
+     */
+    boolean add(long key) {
+        assert key != EMPTY : "Keys must be non-zero";
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        for (int i = slotOf(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return false;
+            }
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    boolean contains(long key) {
+        int mask = keys.length - 1;
+        for (int i = slotOf(key, mask); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a key, shifting later entries of its probe sequence back so that no tombstones are needed.
+     *
+     * @param key key to remove
+     * @return true if the key was present
+     */
+    boolean remove(long key) {
+        int mask = keys.length - 1;
+        int i = slotOf(key, mask);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = EMPTY;
+        size--;
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slotOf(keys[j], mask);
+            // Move the entry into the hole unless its home slot lies cyclically in (i, j]
+            boolean isHomeBetween = i <= j ? i < home && home <= j : i < home || home <= j;
+            if (!isHomeBetween) {
+                keys[i] = keys[j];
+                keys[j] = EMPTY;
+                i = j;
+            }
+        }
+        return true;
+    }
+
+    void forEach(LongConsumer action) {
+        for (long key : keys) {
+            if (key != EMPTY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] old = keys;
+        keys = new long[capacity];
+        size = 0;
+        for (long key : old) {
+            if (key != EMPTY) {
+                add(key);
+            }
+        }
+    }
+
+    private static int slotOf(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,65 @@
+package iris.task;
+
+import java.util.Arrays;
+
+/**
+ * Task store that keeps every task as its own object.
+ */
+class ObjectTaskStore implements TaskStore {
+    private Task[] slots;
+
+    ObjectTaskStore(int capacity) {
+        slots = new Task[capacity];
+    }
+
+    @Override
+    public int capacity() {
+        return slots.length;
+    }
+
+    @Override
+    public void resize(int capacity) {
+        slots = Arrays.copyOf(slots, capacity);
+    }
+
+    @Override
+    public void set(int slot, Task task) {
+        slots[slot] = task;
+    }
+
+    @Override
+    public Task get(int slot) {
+        return slots[slot];
+    }
+
+    @Override
+    public boolean isLive(int slot) {
+        return slots[slot] != null;
+    }
+
+    @Override
+    public long idAt(int slot) {
+        return slots[slot].getId();
+    }
+
+    @Override
+    public boolean isDoneAt(int slot) {
+        return slots[slot].isDone();
+    }
+
+    @Override
+    public void setDone(int slot, boolean isDone) {
+        slots[slot].setDone(isDone);
+    }
+
+    @Override
+    public void clear(int slot) {
+        slots[slot] = null;
+    }
+
+    @Override
+    public void move(int from, int to) {
+        slots[to] = slots[from];
+        slots[from] = null;
+    }
+}
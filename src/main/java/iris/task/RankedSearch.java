@@ -0,0 +1,217 @@
+package iris.task;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Scores slots against a query and keeps the best matches, splitting large scans into chunks
+ * that run on the common fork-join pool. Matches rank by score and then by slot, so the result
+ * does not depend on which chunk finishes first. Once the chunks up to some point hold enough
+ * matches with the best possible score, no later slot can make it into the result, and the
+ * chunks after that point stop scanning.
+ */
+class RankedSearch {
+    // Slots scored by one chunk; scans of fewer slots run on the calling thread
+    static final int CHUNK_SIZE = 16_384;
+    // Slots scored between two checks for whether the rest of the chunk is still needed
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final TaskStore slots;
+    private final TaskQuery query;
+    private final int limit;
+    private final IntUnaryOperator slotAt;
+    private final int count;
+    private final int maxScore;
+    // Matches with the best possible score found by each finished chunk, or -1 while it has not finished
+    private final AtomicIntegerArray bestCounts;
+    // Chunks after this one cannot contribute to the result
+    private volatile int lastNeededChunk = Integer.MAX_VALUE;
+
+    /**
+     * Prepares a search over the slots returned by slotAt for 0 until count.
+     *
+     * @param slots  store holding the tasks
+     * @param query  query to score descriptions with
+     * @param limit  number of matches to keep
+     * @param slotAt maps the i-th slot to scan to its index in the store, in ascending order
+     * @param count  number of slots to scan
+     */
+    RankedSearch(TaskStore slots, TaskQuery query, int limit, IntUnaryOperator slotAt, int count) {
+        assert limit > 0 : "Limit must be positive";
+        this.slots = slots;
+        this.query = query;
+        this.limit = limit;
+        this.slotAt = slotAt;
+        this.count = count;
+        this.maxScore = query.maxScore();
+        int chunkCount = Math.max(1, (count + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        this.bestCounts = new AtomicIntegerArray(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            bestCounts.set(i, -1);
+        }
+    }
+
+    /**
+     * Runs the search.
+     *
+     * @return slots of the best matches, best first
+     */
+    int[] run() {
+        int chunkCount = bestCounts.length();
+        Matches matches = chunkCount == 1
+                ? scan(0)
+                : ForkJoinPool.commonPool().invoke(new ChunkTask(0, chunkCount));
+        return matches.bestFirst();
+    }
+
+    private Matches scan(int chunk) {
+        Matches matches = new Matches(limit);
+        int best = 0;
+        int end = Math.min(count, (chunk + 1) * CHUNK_SIZE);
+        for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+            if (i % CHECK_INTERVAL == 0 && chunk > lastNeededChunk) {
+                break;
+            }
+            int slot = slotAt.applyAsInt(i);
+            if (!slots.isLive(slot)) {
+                continue;
+            }
+            int score = query.score(slots.get(slot).getDescription());
+            if (score == 0) {
+                continue;
+            }
+            matches.offer(score, slot);
+            if (score == maxScore && ++best == limit) {
+                // Later slots of the chunk rank below the best matches found so far
+                break;
+            }
+        }
+        bestCounts.set(chunk, best);
+        updateLastNeededChunk();
+        return matches;
+    }
+
+    // Finds the first chunk by which the finished chunks before it hold enough best-possible matches
+    private void updateLastNeededChunk() {
+        long best = 0;
+        for (int chunk = 0; chunk < bestCounts.length() && chunk < lastNeededChunk; chunk++) {
+            int found = bestCounts.get(chunk);
+            if (found < 0) {
+                return;
+            }
+            best += found;
+            if (best >= limit) {
+                synchronized (this) {
+                    lastNeededChunk = Math.min(lastNeededChunk, chunk);
+                }
+                return;
+            }
+        }
+    }
+
+    // Splits the chunk range in halves until a single chunk remains
+    private class ChunkTask extends RecursiveTask<Matches> {
+        private final int from;
+        private final int to;
+
+        ChunkTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Matches compute() {
+            if (to - from <= 1) {
+                return scan(from);
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask right = new ChunkTask(middle, to);
+            right.fork();
+            Matches leftMatches = new ChunkTask(from, middle).compute();
+            return leftMatches.merge(right.join());
+        }
+    }
+
+    /**
+     * Bounded min-heap of matches, each packed into a long that orders by score and then by slot,
+     * lower slots first, so that the worst kept match is always at the root.
+     */
+    private static class Matches {
+        private final int limit;
+        private long[] heap = new long[16];
+        private int size;
+
+        Matches(int limit) {
+            this.limit = limit;
+        }
+
+        void offer(int score, int slot) {
+            offer(((long) score << Integer.SIZE) | (Integer.MAX_VALUE - slot));
+        }
+
+        private void offer(long match) {
+            if (size < limit) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min((long) size * 2, Integer.MAX_VALUE - 8));
+                }
+                heap[size] = match;
+                siftUp(size++);
+            } else if (match > heap[0]) {
+                heap[0] = match;
+                siftDown(0);
+            }
+        }
+
+        Matches merge(Matches other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.heap[i]);
+            }
+            return this;
+        }
+
+        int[] bestFirst() {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = Integer.MAX_VALUE - (int) sorted[size - 1 - i];
+            }
+            return result;
+        }
+
+        private void siftUp(int index) {
+            long match = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent] <= match) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = match;
+        }
+
+        private void siftDown(int index) {
+            long match = heap[index];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (match <= heap[child]) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = match;
+        }
+    }
+}
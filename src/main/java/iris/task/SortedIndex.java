@@ -0,0 +1,206 @@
+package iris.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Task IDs kept sorted in a {@link TaskOrder}, in an indexable skip list.
+ * Every link records how many entries it skips, so adding or removing a task and seeking to
+ * the k-th entry all take O(log n) expected time, and reading a page of k entries takes
+ * O(log n + k). Only completion status can change after a task is added, so an update moves
+ * the task from the key it had with the other status to its current key.
+ */
+class SortedIndex implements TaskListener {
+    private static final int MAX_LEVEL = 32;
+
+    private final TaskOrder order;
+    private final Random random = new Random();
+    private final Node head = new Node(Long.MIN_VALUE, Long.MIN_VALUE, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    private static final class Node {
+        private final long key;
+        private final long taskId;
+        private final Node[] next;
+        // Number of entries each link moves forward by, counting the one it lands on;
+        // a link to the end counts the entries left after this node
+        private final int[] span;
+
+        Node(long key, long taskId, int level) {
+            this.key = key;
+            this.taskId = taskId;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+
+        boolean isBefore(long otherKey, long otherTaskId) {
+            return key < otherKey || (key == otherKey && taskId < otherTaskId);
+        }
+    }
+
+    SortedIndex(TaskOrder order) {
+        this.order = order;
+    }
+
+    /**
+     * Builds an index over the given tasks with a single sort instead of a search per task.
+     *
+     * @param order order to keep
+     * @param tasks tasks to index
+     * @return index over the tasks
+     */
+    static SortedIndex of(TaskOrder order, List<Task> tasks) {
+        SortedIndex index = new SortedIndex(order);
+        Node[] nodes = new Node[tasks.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            Task task = tasks.get(i);
+            nodes[i] = new Node(order.keyOf(task, task.isDone()), task.getId(), index.randomLevel());
+        }
+        Arrays.sort(nodes, (left, right) -> left.key != right.key
+                ? Long.compare(left.key, right.key)
+                : Long.compare(left.taskId, right.taskId));
+        // Link every node after the last node seen at each of its levels
+        Node[] last = new Node[MAX_LEVEL];
+        int[] lastRank = new int[MAX_LEVEL];
+        Arrays.fill(last, index.head);
+        for (int rank = 1; rank <= nodes.length; rank++) {
+            Node node = nodes[rank - 1];
+            for (int i = 0; i < node.next.length; i++) {
+                last[i].next[i] = node;
+                last[i].span[i] = rank - lastRank[i];
+                last[i] = node;
+                lastRank[i] = rank;
+            }
+            index.level = Math.max(index.level, node.next.length);
+        }
+        for (int i = 0; i < index.level; i++) {
+            last[i].span[i] = nodes.length - lastRank[i];
+        }
+        index.size = nodes.length;
+        return index;
+    }
+
+    @Override
+    public void taskAdded(int index, Task task) {
+        insert(order.keyOf(task, task.isDone()), task.getId());
+    }
+
+    @Override
+    public void taskRemoved(int index, Task task) {
+        boolean isRemoved = delete(order.keyOf(task, task.isDone()), task.getId());
+        assert isRemoved : "Removed task was never indexed";
+    }
+
+    @Override
+    public void taskUpdated(int index, Task task) {
+        long key = order.keyOf(task, task.isDone());
+        long previousKey = order.keyOf(task, !task.isDone());
+        // The task is only indexed under its previous key if its status actually changed
+        if (key != previousKey && delete(previousKey, task.getId())) {
+            insert(key, task.getId());
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the IDs of the tasks at the given ranks of the order.
+     *
+     * @param offset rank of the first task, from 0
+     * @param count  maximum number of IDs
+     * @return IDs in order, fewer than count if the order ends first
+     */
+    List<Long> idsFrom(int offset, int count) {
+        List<Long> result = new ArrayList<>();
+        if (offset >= size || count <= 0) {
+            return result;
+        }
+        // Walk down the levels to the node just before the first requested rank
+        Node node = head;
+        int rank = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && rank + node.span[i] <= offset) {
+                rank += node.span[i];
+                node = node.next[i];
+            }
+        }
+        for (node = node.next[0]; node != null && result.size() < count; node = node.next[0]) {
+            result.add(node.taskId);
+        }
+        return result;
+    }
+
+    private void insert(long key, long taskId) {
+        Node[] previous = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.next[i] != null && node.next[i].isBefore(key, taskId)) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            previous[i] = node;
+        }
+        int nodeLevel = randomLevel();
+        for (int i = level; i < nodeLevel; i++) {
+            previous[i] = head;
+            head.span[i] = size;
+        }
+        level = Math.max(level, nodeLevel);
+        Node inserted = new Node(key, taskId, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            inserted.next[i] = previous[i].next[i];
+            previous[i].next[i] = inserted;
+            int skipped = rank[0] - rank[i];
+            inserted.span[i] = previous[i].span[i] - skipped;
+            previous[i].span[i] = skipped + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            previous[i].span[i]++;
+        }
+        size++;
+    }
+
+    private boolean delete(long key, long taskId) {
+        Node[] previous = new Node[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && node.next[i].isBefore(key, taskId)) {
+                node = node.next[i];
+            }
+            previous[i] = node;
+        }
+        Node deleted = node.next[0];
+        if (deleted == null || deleted.key != key || deleted.taskId != taskId) {
+            return false;
+        }
+        for (int i = 0; i < level; i++) {
+            if (previous[i].next[i] == deleted) {
+                previous[i].span[i] += deleted.span[i] - 1;
+                previous[i].next[i] = deleted.next[i];
+            } else {
+                previous[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    // Each level is kept by a quarter of the nodes of the level below
+    private int randomLevel() {
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && random.nextInt(4) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+}
@@ -2,7 +2,10 @@ package iris.task;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
+
+import iris.metrics.TaskParseFailureEvent;
 
 /**
  * Represents a Task with a description and completion status.
@@ -20,6 +23,11 @@ public abstract class Task {
 
     protected final String description;
     protected boolean isDone;
+    // Stable identifier assigned by the TaskList; 0 until the task is first added
+    private long id;
+    // Rendered lines, computed on first use and cleared by every mutation
+    private String displayLine;
+    private String serializedLine;
 
 
     /**
@@ -32,51 +40,194 @@ public abstract class Task {
         this.isDone = false;
     }
 
+    public long getId() {
+        return this.id;
+    }
+
+    void setId(long id) {
+        this.id = id;
+        this.serializedLine = null;
+    }
+
     public String getDescription() {
         return this.description;
     }
 
+    public boolean isDone() {
+        return this.isDone;
+    }
+
+    /**
+     * Updates the completion status and clears the cached lines that show it.
+     *
+     * @param isDone new completion status
+     */
     public void setDone(boolean isDone) {
-        this.isDone = isDone;
+        if (this.isDone != isDone) {
+            this.isDone = isDone;
+            this.displayLine = null;
+            this.serializedLine = null;
+        }
+    }
+
+    /**
+     * Returns the first date the task is associated with.
+     *
+     * @return start date, or null if the task is undated
+     */
+    public LocalDate getStartDate() {
+        return null;
     }
 
+    /**
+     * Returns the last date the task is associated with.
+     *
+     * @return end date, or null if the task is undated
+     */
+    public LocalDate getEndDate() {
+        return getStartDate();
+    }
+
+    /**
+     * Returns the display line of the task, rendering it only if it has changed since it was last shown.
+     *
+     * @return display line
+     */
+    @Override
     public String toString() {
+        if (displayLine == null) {
+            displayLine = render();
+        }
+        return displayLine;
+    }
+
+    /**
+     * Renders the display line of the task.
+     *
+     * @return status and description of the task
+     */
+    protected String render() {
         return String.format("[%c] %s", this.isDone ? 'X' : ' ', this.description);
     }
 
-    static String makeSplitRegex(String[] keywords) {
-        if (keywords == null || keywords.length == 0) {
-            return "";
-        }
-        StringBuilder result = new StringBuilder();
-        for (String keyword : keywords) {
-            String quoted = Pattern.quote(keyword);
-            result.append("(?<=").append(quoted).append(")|(?=").append(quoted).append(")").append("|");
-        }
-        if (!result.isEmpty()) {
-            result.deleteCharAt(result.length() - 1);
+    /**
+     * Serializes the Task object, prefixed with its ID, to a string.
+     * The result is cached until the task changes.
+     *
+     * @return the serialized string
+     */
+    public String serialize() {
+        if (serializedLine == null) {
+            serializedLine = id + "|" + serializeFields();
         }
-        return result.toString();
+        return serializedLine;
     }
 
     /**
-     * Serializes the Task object to a string.
+     * Serializes the Task object without its ID, in the text format of files written before tasks had IDs.
      *
-     * @return the serialized string
+     * @return the serialized string without the ID
+     */
+    public String serializeWithoutId() {
+        return serializeFields();
+    }
+
+    /**
+     * Serializes the type, status and fields of the Task object to a string.
+     *
+     * @return the serialized string without the ID
      */
-    public abstract String serialize();
+    protected abstract String serializeFields();
+
+    /**
+     * Escapes the field separator and the escape character itself, so that a
+     * description containing "|" survives a round trip through the text format.
+     *
+     * @param field field value to escape
+     * @return escaped field value
+     */
+    protected static String escape(String field) {
+        if (field.indexOf('|') < 0 && field.indexOf('\\') < 0) {
+            return field;
+        }
+        StringBuilder result = new StringBuilder(field.length() + 8);
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '|' || c == '\\') {
+                result.append('\\');
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+
+    // Splits on unescaped separators and, like String.split, drops trailing empty fields.
+    // A backslash before any character other than a separator or backslash is kept as is.
+    private static List<String> splitFields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            char next = i + 1 < line.length() ? line.charAt(i + 1) : 0;
+            if (c == '\\' && (next == '|' || next == '\\')) {
+                field.append(next);
+                i++;
+            } else if (c == '|') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        while (!fields.isEmpty() && fields.get(fields.size() - 1).isEmpty()) {
+            fields.remove(fields.size() - 1);
+        }
+        return fields;
+    }
 
     /**
      * Deserializes a string to a Task object.
+     * Lines written before tasks had IDs have no ID prefix; such tasks get a fresh ID when added.
+     * Lines that fail to deserialize show up as {@link TaskParseFailureEvent}s in flight recordings.
      *
      * @param line the serialized string
      * @return the deserialized Task object, or null if deserialization fails
      */
     public static Task deserialize(String line) {
+        Task task = parse(line);
+        if (task == null) {
+            TaskParseFailureEvent.emit(line);
+        }
+        return task;
+    }
+
+    private static Task parse(String line) {
         if (line == null || line.isEmpty()) {
             return null;
         }
-        String[] parts = line.split("\\|");
+        long id = 0;
+        if (Character.isDigit(line.charAt(0))) {
+            int separator = line.indexOf('|');
+            if (separator < 0) {
+                return null;
+            }
+            try {
+                id = Long.parseLong(line.substring(0, separator));
+            } catch (NumberFormatException exception) {
+                return null;
+            }
+            line = line.substring(separator + 1);
+        }
+        Task task = deserializeFields(line);
+        if (task != null) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private static Task deserializeFields(String line) {
+        String[] parts = splitFields(line).toArray(String[]::new);
         if (parts.length < 3) {
             return null;
         }
@@ -0,0 +1,147 @@
+package iris.task;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Encodes tasks as compact binary records.
+ * A record is the task type, the completion status, the ID as a varint, the dates as
+ * zigzag varint epoch days, and the description as a varint length followed by UTF-8 bytes.
+ */
+public final class TaskCodec {
+    static final byte TODO = 0;
+    static final byte DEADLINE = 1;
+    static final byte EVENT = 2;
+    static final byte DO_AFTER = 3;
+
+    // Shortest record: type, status, a one-byte ID and the length of an empty description
+    public static final int MIN_ENCODED_LENGTH = 4;
+
+    // Longest encoding of a varint long
+    private static final int MAX_VARINT_LENGTH = 10;
+    // Type, status, ID, two dates and the description length
+    private static final int MAX_FIXED_LENGTH = 2 + 4 * MAX_VARINT_LENGTH;
+
+    private TaskCodec() {
+    }
+
+    static byte typeOf(Task task) {
+        if (task instanceof Deadline) {
+            return DEADLINE;
+        } else if (task instanceof Event) {
+            return EVENT;
+        } else if (task instanceof DoAfter) {
+            return DO_AFTER;
+        } else {
+            assert task instanceof Todo : "Unknown task type " + task.getClass();
+            return TODO;
+        }
+    }
+
+    /**
+     * Returns an upper bound on the encoded length of a task.
+     *
+     * @param task task to encode
+     * @return maximum number of bytes {@link #encode} writes for the task
+     */
+    public static int maxEncodedLength(Task task) {
+        // A char never takes more than three bytes in UTF-8
+        return MAX_FIXED_LENGTH + 3 * task.getDescription().length();
+    }
+
+    /**
+     * Writes a task as a binary record.
+     *
+     * @param task   task to encode
+     * @param buffer buffer with at least {@link #maxEncodedLength} bytes remaining
+     */
+    public static void encode(Task task, ByteBuffer buffer) {
+        encode(task, task.isDone(), buffer);
+    }
+
+    /**
+     * Writes a task as a binary record with the given completion status, such as the one
+     * captured by a {@link TaskSnapshot}.
+     *
+     * @param task   task to encode
+     * @param isDone completion status to record
+     * @param buffer buffer with at least {@link #maxEncodedLength} bytes remaining
+     */
+    public static void encode(Task task, boolean isDone, ByteBuffer buffer) {
+        byte type = typeOf(task);
+        buffer.put(type);
+        buffer.put((byte) (isDone ? 1 : 0));
+        putVarLong(buffer, task.getId());
+        if (type != TODO) {
+            putVarLong(buffer, zigzag(task.getStartDate().toEpochDay()));
+        }
+        if (type == EVENT) {
+            putVarLong(buffer, zigzag(task.getEndDate().toEpochDay()));
+        }
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        putVarLong(buffer, description.length);
+        buffer.put(description);
+    }
+
+    /**
+     * Reads a binary record from a heap buffer.
+     *
+     * @param buffer array-backed buffer positioned at the start of a record
+     * @return the decoded task
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    public static Task decode(ByteBuffer buffer) {
+        byte type = buffer.get();
+        boolean isDone = buffer.get() != 0;
+        long id = getVarLong(buffer);
+        LocalDate start = type == TODO ? null : LocalDate.ofEpochDay(unzigzag(getVarLong(buffer)));
+        LocalDate end = type == EVENT ? LocalDate.ofEpochDay(unzigzag(getVarLong(buffer))) : null;
+        int length = Math.toIntExact(getVarLong(buffer));
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Description runs past the end of the record");
+        }
+        String description = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        Task task = switch (type) {
+        case TODO -> new Todo(description);
+        case DEADLINE -> new Deadline(description, start);
+        case EVENT -> new Event(description, start, end);
+        case DO_AFTER -> new DoAfter(description, start);
+        default -> throw new IllegalArgumentException("Unknown task type " + type);
+        };
+        task.setId(id);
+        task.setDone(isDone);
+        return task;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is too long");
+    }
+}
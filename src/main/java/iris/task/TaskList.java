@@ -0,0 +1,569 @@
+package iris.task;
+
+import java.lang.invoke.VarHandle;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Ordered list of tasks that notifies its listeners of every mutation
+ * and keeps its search indexes up to date.
+ * Every task gets a stable ID. Tasks live in append-only slots, and removals leave
+ * tombstones whose positions are tracked in a Fenwick tree, so that both position
+ * and ID lookups run in O(log n) without shifting later tasks.
+ * The slots are held by a {@link TaskStore}; a {@link #columnar()} list returns
+ * freshly materialized tasks, so completion status must be changed through {@link #setDone}.
+ *
+ * <p>The list is safe to share between threads. Mutations take the write lock and notify
+ * listeners while holding it, so they are linearizable and listeners see them in order.
+ * Point reads are optimistic: they run without locking and are validated against a version
+ * that every mutation bumps, so they never block writers. Queries, snapshots and compound
+ * reads take the read lock, which new readers stop acquiring while a writer is waiting, so
+ * a steady stream of queries cannot starve mutations. Both locks are reentrant, so listeners
+ * and the functions given to {@link #read} and {@link #update} may call back into the list.
+ */
+public class TaskList implements Iterable<Task> {
+    private static final int INITIAL_CAPACITY = 16;
+    // Tombstones are only compacted away once they outnumber the live tasks and this constant
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+
+    private final List<TaskListener> listeners = new CopyOnWriteArrayList<>();
+    private final KeywordIndex keywordIndex = new KeywordIndex();
+    private final DateIndex dateIndex = new DateIndex();
+    private final DeadlineIndex deadlineIndex = new DeadlineIndex();
+    // Built on first use, since most lists are never viewed in most orders
+    private final Map<TaskOrder, SortedIndex> sortedIndexes = new EnumMap<>(TaskOrder.class);
+    private final LongIntMap slotById = new LongIntMap();
+    private final TaskStore slots;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Odd while a mutation is in progress, so that optimistic reads can tell whether they raced one
+    private volatile long version;
+    // Counts one for every live slot
+    private FenwickTree liveSlots = new FenwickTree(INITIAL_CAPACITY);
+    private int slotCount;
+    private int size;
+    private long nextId = 1;
+
+    /**
+     * Creates an empty task list that keeps every task as its own object.
+     */
+    public TaskList() {
+        this(new ObjectTaskStore(INITIAL_CAPACITY));
+    }
+
+    TaskList(TaskStore slots) {
+        this.slots = slots;
+        listeners.add(keywordIndex);
+        listeners.add(dateIndex);
+        listeners.add(deadlineIndex);
+    }
+
+    /**
+     * Creates an empty task list that stores its tasks column by column, which takes
+     * several times less memory per task than keeping task objects.
+     *
+     * @return empty columnar task list
+     */
+    public static TaskList columnar() {
+        return new TaskList(new ColumnarTaskStore(INITIAL_CAPACITY));
+    }
+
+    public void addListener(TaskListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TaskListener listener) {
+        listeners.remove(listener);
+    }
+
+    public int size() {
+        return readOptimistically(() -> size);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public Task get(int index) {
+        return readOptimistically(() -> slots.get(slotAt(index)));
+    }
+
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id task ID
+     * @return the task, or null if no task has the ID
+     */
+    public Task getById(long id) {
+        return readOptimistically(() -> {
+            int slot = slotById.get(id, -1);
+            return slot < 0 ? null : slots.get(slot);
+        });
+    }
+
+    /**
+     * Returns the current position of the task with the given ID.
+     *
+     * @param id task ID
+     * @return zero-based position, or -1 if no task has the ID
+     */
+    public int positionOfId(long id) {
+        return readOptimistically(() -> {
+            int slot = slotById.get(id, -1);
+            return slot < 0 ? -1 : liveSlots.prefixSum(slot) - 1;
+        });
+    }
+
+    /**
+     * Runs a compound read, such as a query followed by lookups of its results, against
+     * a state of the list that no mutation can change halfway.
+     *
+     * @param query read to run; may call any read method of the list
+     * @return result of the read
+     */
+    public <T> T read(Function<TaskList, T> query) {
+        return readLocked(() -> query.apply(this));
+    }
+
+    /**
+     * Runs a compound update, such as resolving a selection and removing it, as a single
+     * linearizable mutation.
+     *
+     * @param operation update to run; may call any method of the list
+     * @return result of the update
+     */
+    public <T> T update(Function<TaskList, T> operation) {
+        return writeLocked(() -> operation.apply(this));
+    }
+
+    // Reads without locking and retries under the read lock if a writer got in the way
+    private <T> T readOptimistically(Supplier<T> read) {
+        if (lock.isWriteLockedByCurrentThread() || lock.getReadHoldCount() > 0) {
+            return read.get();
+        }
+        long before = version;
+        if ((before & 1) == 0) {
+            try {
+                T result = read.get();
+                VarHandle.acquireFence();
+                if (version == before) {
+                    return result;
+                }
+            } catch (RuntimeException exception) {
+                // A concurrent write left the state inconsistent; only trust the exception if none happened
+                VarHandle.acquireFence();
+                if (version == before) {
+                    throw exception;
+                }
+            }
+        }
+        return readLocked(read);
+    }
+
+    private <T> T readLocked(Supplier<T> read) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return read.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private <T> T writeLocked(Supplier<T> write) {
+        if (lock.getReadHoldCount() > 0 && !lock.isWriteLockedByCurrentThread()) {
+            throw new IllegalStateException("The task list cannot be updated while it is being read");
+        }
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        boolean isOutermost = lock.getWriteHoldCount() == 1;
+        if (isOutermost) {
+            version++;
+            // Keep the mutation from becoming visible before the version turns odd
+            VarHandle.storeStoreFence();
+        }
+        try {
+            return write.get();
+        } finally {
+            if (isOutermost) {
+                version++;
+            }
+            writeLock.unlock();
+        }
+    }
+
+    private int slotAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return liveSlots.findByOrder(index + 1);
+    }
+
+    /**
+     * Appends a task to the end of the list, assigning it an ID if it has none yet.
+     *
+     * @param task task to add
+     */
+    public void add(Task task) {
+        writeLocked(() -> {
+            addUnlocked(task);
+            return null;
+        });
+    }
+
+    /**
+     * Makes sure that the list never assigns an ID below the given one, so that the IDs of tasks
+     * deleted before the list was saved are not given to new tasks after it is loaded.
+     *
+     * @param firstFreeId lowest ID that the list may still assign
+     */
+    public void reserveIdsBelow(long firstFreeId) {
+        writeLocked(() -> {
+            nextId = Math.max(nextId, firstFreeId);
+            return null;
+        });
+    }
+
+    private void addUnlocked(Task task) {
+        if (task.getId() <= 0 || slotById.containsKey(task.getId())) {
+            task.setId(nextId);
+        }
+        nextId = Math.max(nextId, task.getId() + 1);
+        if (slotCount == slots.capacity()) {
+            compact(slots.capacity() * 2);
+        }
+        slots.set(slotCount, task);
+        liveSlots.add(slotCount, 1);
+        slotById.put(task.getId(), slotCount);
+        slotCount++;
+        size++;
+        int index = size - 1;
+        for (TaskListener listener : listeners) {
+            listener.taskAdded(index, task);
+        }
+    }
+
+    /**
+     * Removes the task at the given position.
+     *
+     * @param index position of the task
+     * @return the removed task
+     */
+    public Task remove(int index) {
+        return writeLocked(() -> removeUnlocked(index));
+    }
+
+    private Task removeUnlocked(int index) {
+        int slot = slotAt(index);
+        Task removed = slots.get(slot);
+        slots.clear(slot);
+        liveSlots.add(slot, -1);
+        slotById.remove(removed.getId());
+        size--;
+        for (TaskListener listener : listeners) {
+            listener.taskRemoved(index, removed);
+        }
+        int tombstones = slotCount - size;
+        if (tombstones > MIN_TOMBSTONES_TO_COMPACT && tombstones > size) {
+            compact(slots.capacity());
+        }
+        return removed;
+    }
+
+    // Moves the live tasks to the front of the store and resizes it to the given capacity
+    private void compact(int capacity) {
+        int[] counts = new int[capacity];
+        int kept = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slots.isLive(slot)) {
+                if (slot != kept) {
+                    slots.move(slot, kept);
+                }
+                counts[kept] = 1;
+                slotById.put(slots.idAt(kept), kept);
+                kept++;
+            }
+        }
+        slots.resize(capacity);
+        slotCount = kept;
+        liveSlots = new FenwickTree(counts, kept, capacity);
+    }
+
+    /**
+     * Removes all selected tasks in a single compacting pass.
+     * Listeners are notified from the highest position down, so every reported
+     * position is valid at the time it is reported.
+     *
+     * @param selection positions of the tasks to remove
+     * @return number of removed tasks
+     */
+    public int removeAll(BitSet selection) {
+        return writeLocked(() -> removeAllUnlocked(selection));
+    }
+
+    private int removeAllUnlocked(BitSet selection) {
+        List<Task> removed = new ArrayList<>();
+        int originalSize = size;
+        int index = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (!slots.isLive(slot)) {
+                continue;
+            }
+            if (selection.get(index)) {
+                Task task = slots.get(slot);
+                removed.add(task);
+                slots.clear(slot);
+                slotById.remove(task.getId());
+            }
+            index++;
+        }
+        size -= removed.size();
+        compact(slots.capacity());
+        index = originalSize;
+        for (int i = removed.size() - 1; i >= 0; i--) {
+            index = selection.previousSetBit(index - 1);
+            for (TaskListener listener : listeners) {
+                listener.taskRemoved(index, removed.get(i));
+            }
+        }
+        return removed.size();
+    }
+
+    /**
+     * Updates the completion status of all selected tasks.
+     *
+     * @param selection positions of the tasks to update
+     * @param isDone    new completion status
+     * @return number of updated tasks
+     */
+    public int setDoneAll(BitSet selection, boolean isDone) {
+        return writeLocked(() -> {
+            int updated = 0;
+            for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+                setDoneUnlocked(i, isDone);
+                updated++;
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * Updates the completion status of the task at the given position.
+     *
+     * @param index  position of the task
+     * @param isDone new completion status
+     * @return the updated task
+     */
+    public Task setDone(int index, boolean isDone) {
+        return writeLocked(() -> setDoneUnlocked(index, isDone));
+    }
+
+    private Task setDoneUnlocked(int index, boolean isDone) {
+        int slot = slotAt(index);
+        slots.setDone(slot, isDone);
+        Task task = slots.get(slot);
+        for (TaskListener listener : listeners) {
+            listener.taskUpdated(index, task);
+        }
+        return task;
+    }
+
+    /**
+     * Takes a consistent snapshot of the list in list order.
+     * Only references and completion flags are copied, so this is cheap enough to do on every autosave.
+     *
+     * @return snapshot that stays valid while the list keeps changing
+     */
+    public TaskSnapshot snapshot() {
+        return readLocked(() -> {
+            Task[] tasks = new Task[size];
+            BitSet done = new BitSet(size);
+            int index = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (slots.isLive(slot)) {
+                    tasks[index] = slots.get(slot);
+                    done.set(index, slots.isDoneAt(slot));
+                    index++;
+                }
+            }
+            return new TaskSnapshot(tasks, done, nextId);
+        });
+    }
+
+    /**
+     * Returns the positions of the tasks at the given ranks of an order. The order is kept up to date
+     * from the first call on, so a page of k tasks takes O((log n + k) log n) however the list changes.
+     *
+     * @param order  order to view the list in
+     * @param offset rank of the first task, from 0
+     * @param count  maximum number of positions to return
+     * @return zero-based positions, in the order
+     */
+    public List<Integer> findSorted(TaskOrder order, int offset, int count) {
+        return readLocked(() -> {
+            SortedIndex index;
+            // Writers are locked out, so the index cannot miss a change while it is being built
+            synchronized (sortedIndexes) {
+                index = sortedIndexes.computeIfAbsent(order, this::buildSortedIndex);
+            }
+            List<Integer> result = new ArrayList<>();
+            for (long id : index.idsFrom(offset, count)) {
+                result.add(positionOfId(id));
+            }
+            return result;
+        });
+    }
+
+    private SortedIndex buildSortedIndex(TaskOrder order) {
+        List<Task> tasks = new ArrayList<>(size);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slots.isLive(slot)) {
+                tasks.add(slots.get(slot));
+            }
+        }
+        SortedIndex index = SortedIndex.of(order, tasks);
+        listeners.add(index);
+        return index;
+    }
+
+    /**
+     * Returns the positions of the tasks that match the query best, best match first and earlier
+     * tasks first among equally good ones. The trigram index narrows down the tasks to score where
+     * the keywords allow it; otherwise large lists are scanned in parallel.
+     *
+     * @param query query to match
+     * @param limit maximum number of positions to return
+     * @return zero-based positions, best match first
+     */
+    public List<Integer> search(TaskQuery query, int limit) {
+        return readLocked(() -> {
+            List<LongSet> candidates = keywordIndex.candidatesOf(query);
+            int[] found;
+            if (candidates == null) {
+                found = new RankedSearch(slots, query, limit, slot -> slot, slotCount).run();
+            } else {
+                int[] candidateSlots = slotsOf(candidates);
+                found = new RankedSearch(slots, query, limit, i -> candidateSlots[i], candidateSlots.length).run();
+            }
+            List<Integer> result = new ArrayList<>(found.length);
+            for (int slot : found) {
+                result.add(liveSlots.prefixSum(slot) - 1);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Returns the positions of all tasks whose description contains the word as a whole token.
+     *
+     * @param word word to search for
+     * @return zero-based positions in ascending order
+     */
+    public List<Integer> findWord(String word) {
+        return readLocked(() -> positionsOf(keywordIndex.findWord(word)));
+    }
+
+    /**
+     * Returns the most frequent words of the task descriptions that start with the given prefix.
+     * Takes time proportional to the length of the prefix, however many tasks there are.
+     *
+     * @param prefix prefix to complete
+     * @param limit  maximum number of words, at most {@link CompletionTrie#MAX_SUGGESTIONS}
+     * @return matching words, most frequent first
+     */
+    public List<String> completeWord(String prefix, int limit) {
+        return readLocked(() -> keywordIndex.completeWord(prefix, limit));
+    }
+
+    /**
+     * Returns the positions of all dated tasks whose date range includes the given day.
+     *
+     * @param date day to look up
+     * @return zero-based positions in ascending order
+     */
+    public List<Integer> findDue(LocalDate date) {
+        return readLocked(() -> positionsOf(dateIndex.findOverlapping(date, date)));
+    }
+
+    /**
+     * Returns the positions of all dated tasks whose date range overlaps the given range.
+     *
+     * @param from first day of the range, inclusive
+     * @param to   last day of the range, inclusive
+     * @return zero-based positions in ascending order
+     */
+    public List<Integer> findBetween(LocalDate from, LocalDate to) {
+        return readLocked(() -> positionsOf(dateIndex.findOverlapping(from, to)));
+    }
+
+    /**
+     * Returns the positions of all unfinished deadlines that are due before the given day.
+     *
+     * @param today current day
+     * @return zero-based positions in ascending order
+     */
+    public List<Integer> findOverdue(LocalDate today) {
+        return readLocked(() -> positionsOf(deadlineIndex.findDueBefore(today)));
+    }
+
+    // Slots of the tasks in any of the postings, ascending and without duplicates
+    private int[] slotsOf(List<LongSet> postings) {
+        int total = 0;
+        for (LongSet posting : postings) {
+            total += posting.size();
+        }
+        int[] result = new int[total];
+        int[] next = {0};
+        for (LongSet posting : postings) {
+            posting.forEach(id -> result[next[0]++] = slotById.get(id, -1));
+        }
+        Arrays.sort(result);
+        int unique = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[unique++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, unique);
+    }
+
+    private List<Integer> positionsOf(Collection<Long> ids) {
+        List<Integer> result = new ArrayList<>(ids.size());
+        for (long id : ids) {
+            result.add(positionOfId(id));
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Returns the tasks in list order as they are at the time of the call.
+     *
+     * @return unmodifiable list backed by a snapshot
+     */
+    public List<Task> asList() {
+        return snapshot().asList();
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the list, so iterating never blocks writers.
+     *
+     * @return iterator over the tasks in list order
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return asList().iterator();
+    }
+}
@@ -0,0 +1,30 @@
+package iris.task;
+
+/**
+ * Receives notifications whenever a {@link TaskList} is mutated.
+ */
+public interface TaskListener {
+    /**
+     * Called after a task has been appended to the list.
+     *
+     * @param index position of the new task
+     * @param task  the added task
+     */
+    void taskAdded(int index, Task task);
+
+    /**
+     * Called after a task has been removed from the list.
+     *
+     * @param index position the task occupied before removal
+     * @param task  the removed task
+     */
+    void taskRemoved(int index, Task task);
+
+    /**
+     * Called after the completion status of a task has changed.
+     *
+     * @param index position of the task
+     * @param task  the updated task
+     */
+    void taskUpdated(int index, Task task);
+}
@@ -0,0 +1,48 @@
+package iris.task;
+
+import java.time.LocalDate;
+
+/**
+ * Orders in which a {@link TaskList} can be viewed besides its own. Tasks that tie
+ * on an order's key keep the order of their IDs, which is the order they were added in.
+ */
+public enum TaskOrder {
+    // Earliest start date first, undated tasks last
+    DATE {
+        @Override
+        long keyOf(Task task, boolean isDone) {
+            LocalDate startDate = task.getStartDate();
+            return startDate == null ? Long.MAX_VALUE : startDate.toEpochDay();
+        }
+    },
+    // Todos, then deadlines, events and do-after tasks
+    TYPE {
+        @Override
+        long keyOf(Task task, boolean isDone) {
+            if (task instanceof Deadline) {
+                return 1;
+            } else if (task instanceof Event) {
+                return 2;
+            } else if (task instanceof DoAfter) {
+                return 3;
+            }
+            return 0;
+        }
+    },
+    // Unfinished tasks first
+    DONE {
+        @Override
+        long keyOf(Task task, boolean isDone) {
+            return isDone ? 1 : 0;
+        }
+    };
+
+    /**
+     * Returns the key that the task sorts by, lower keys first.
+     *
+     * @param task   task to sort
+     * @param isDone completion status to assume for the task
+     * @return sort key
+     */
+    abstract long keyOf(Task task, boolean isDone);
+}
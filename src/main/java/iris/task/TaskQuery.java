@@ -0,0 +1,149 @@
+package iris.task;
+
+import java.util.List;
+
+/**
+ * Keyword search over task descriptions that scores how well each description matches.
+ * A keyword scores more when it matches a whole word than when it starts a word, and more
+ * when it starts a word than when it only occurs inside one; a description that holds all
+ * keywords as typed, in order, scores a bonus on top.
+ */
+public class TaskQuery {
+    private static final int INSIDE_WORD = 1;
+    private static final int WORD_START = 2;
+    private static final int WHOLE_WORD = 3;
+
+    private final String[] keywords;
+    // Upper and lower case of the first character of each keyword, to skip mismatches cheaply
+    private final char[] firstUpper;
+    private final char[] firstLower;
+    private final String phrase;
+    private final boolean isAnyKeyword;
+    private final boolean isCaseSensitive;
+
+    /**
+     * Creates a query.
+     *
+     * @param keywords        non-empty keywords, without whitespace
+     * @param isAnyKeyword    true to match descriptions holding any keyword, false to require all of them
+     * @param isCaseSensitive true to match the case of the keywords exactly
+     */
+    public TaskQuery(List<String> keywords, boolean isAnyKeyword, boolean isCaseSensitive) {
+        assert !keywords.isEmpty() : "A query needs at least one keyword";
+        this.keywords = keywords.toArray(String[]::new);
+        this.firstUpper = new char[this.keywords.length];
+        this.firstLower = new char[this.keywords.length];
+        for (int i = 0; i < this.keywords.length; i++) {
+            firstUpper[i] = Character.toUpperCase(this.keywords[i].charAt(0));
+            firstLower[i] = Character.toLowerCase(firstUpper[i]);
+        }
+        this.phrase = String.join(" ", keywords);
+        this.isAnyKeyword = isAnyKeyword;
+        this.isCaseSensitive = isCaseSensitive;
+    }
+
+    List<String> getKeywords() {
+        return List.of(keywords);
+    }
+
+    boolean isAnyKeyword() {
+        return isAnyKeyword;
+    }
+
+    boolean isCaseSensitive() {
+        return isCaseSensitive;
+    }
+
+    /**
+     * Returns the score of a description that matches every keyword as a whole word and the phrase.
+     */
+    int maxScore() {
+        return WHOLE_WORD * keywords.length + phraseBonus();
+    }
+
+    /**
+     * Scores how well the description matches the query.
+     *
+     * @param description description to match
+     * @return positive score, higher for better matches, or 0 if the description does not match
+     */
+    int score(String description) {
+        int score = 0;
+        for (int i = 0; i < keywords.length; i++) {
+            int quality = bestMatch(description, i);
+            if (quality == 0 && !isAnyKeyword) {
+                return 0;
+            }
+            score += quality;
+        }
+        if (score > 0 && keywords.length > 1 && indexOf(description, phrase, 0, 0) >= 0) {
+            score += phraseBonus();
+        }
+        return score;
+    }
+
+    private int phraseBonus() {
+        return keywords.length > 1 ? WHOLE_WORD * keywords.length : 0;
+    }
+
+    private int bestMatch(String description, int keywordIndex) {
+        String keyword = keywords[keywordIndex];
+        int best = 0;
+        for (int at = indexOf(description, keyword, keywordIndex, 0); at >= 0;
+                at = indexOf(description, keyword, keywordIndex, at + 1)) {
+            boolean isWordStart = at == 0 || !Character.isLetterOrDigit(description.charAt(at - 1));
+            int end = at + keyword.length();
+            boolean isWordEnd = end == description.length() || !Character.isLetterOrDigit(description.charAt(end));
+            int quality = isWordStart ? (isWordEnd ? WHOLE_WORD : WORD_START) : INSIDE_WORD;
+            if (quality == WHOLE_WORD) {
+                return quality;
+            }
+            best = Math.max(best, quality);
+        }
+        return best;
+    }
+
+    // Finds text starting with the first character of the given keyword, from the given index on
+    private int indexOf(String description, String text, int keywordIndex, int from) {
+        if (isCaseSensitive) {
+            return description.indexOf(text, from);
+        }
+        int last = description.length() - text.length();
+        char upper = firstUpper[keywordIndex];
+        char lower = firstLower[keywordIndex];
+        for (int at = from; at <= last; at++) {
+            char c = description.charAt(at);
+            // Only characters outside ASCII can have casings other than the upper and lower one
+            if ((c == upper || c == lower || c > Byte.MAX_VALUE && fold(c) == lower)
+                    && description.regionMatches(true, at, text, 0, text.length())) {
+                return at;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Maps a character to the same value as every other casing of it, the way
+     * {@link String#equalsIgnoreCase} compares characters.
+     *
+     * @param c character to fold
+     * @return folded character
+     */
+    static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Folds every character of the text, keeping its length.
+     *
+     * @param text text to fold
+     * @return folded text
+     */
+    static String fold(String text) {
+        char[] folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(text.charAt(i));
+        }
+        return new String(folded);
+    }
+}
@@ -0,0 +1,59 @@
+package iris.task;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable point-in-time view of a task list that can be read from any thread.
+ * Taking it only copies task references and completion flags, since descriptions and
+ * dates never change; the flags are captured separately because tasks can be marked later.
+ */
+public final class TaskSnapshot {
+    private final Task[] tasks;
+    private final BitSet done;
+    private final long nextId;
+
+    TaskSnapshot(Task[] tasks, BitSet done, long nextId) {
+        this.tasks = tasks;
+        this.done = done;
+        this.nextId = nextId;
+    }
+
+    public int size() {
+        return tasks.length;
+    }
+
+    public Task get(int index) {
+        return tasks[index];
+    }
+
+    /**
+     * Returns the ID the list was going to give the next task it assigned one to. It can be higher
+     * than every ID in the snapshot, since the IDs of deleted tasks are never given out again.
+     */
+    public long getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Returns the tasks of the snapshot. Their completion status may have changed since the
+     * snapshot was taken; {@link #isDone} has the status at that time.
+     *
+     * @return unmodifiable list of the tasks in list order
+     */
+    public List<Task> asList() {
+        return Collections.unmodifiableList(Arrays.asList(tasks));
+    }
+
+    /**
+     * Returns the completion status of a task as it was when the snapshot was taken.
+     *
+     * @param index position of the task
+     * @return true if the task was done
+     */
+    public boolean isDone(int index) {
+        return done.get(index);
+    }
+}
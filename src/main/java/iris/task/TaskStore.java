@@ -0,0 +1,50 @@
+package iris.task;
+
+/**
+ * Backing storage for the slots of a {@link TaskList}.
+ * A slot either holds a task or is empty; the task list decides which slots are used.
+ */
+interface TaskStore {
+    int capacity();
+
+    /**
+     * Changes the number of slots, keeping the contents of the slots that still fit.
+     *
+     * @param capacity new number of slots
+     */
+    void resize(int capacity);
+
+    /**
+     * Stores a task in an empty slot.
+     *
+     * @param slot slot to fill
+     * @param task task to store
+     */
+    void set(int slot, Task task);
+
+    /**
+     * Returns the task in a slot.
+     *
+     * @param slot slot to read
+     * @return the task, or null if the slot is empty
+     */
+    Task get(int slot);
+
+    boolean isLive(int slot);
+
+    long idAt(int slot);
+
+    boolean isDoneAt(int slot);
+
+    void setDone(int slot, boolean isDone);
+
+    void clear(int slot);
+
+    /**
+     * Moves the task in one slot into an empty slot, leaving the source slot empty.
+     *
+     * @param from slot holding the task
+     * @param to   empty slot to move it to
+     */
+    void move(int from, int to);
+}
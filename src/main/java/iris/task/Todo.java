@@ -8,8 +8,9 @@ public class Todo extends Task {
         super(description);
     }
 
-    public String toString() {
-        return String.format("[T]%s", super.toString());
+    @Override
+    protected String render() {
+        return String.format("[T]%s", super.render());
     }
 
     /**
@@ -36,7 +37,7 @@ public class Todo extends Task {
      * @return Serialized string
      */
     @Override
-    public String serialize() {
-        return String.format("TODO|%b|%s", isDone, description);
+    protected String serializeFields() {
+        return String.format("TODO|%b|%s", isDone, escape(description));
     }
 }
@@ -0,0 +1,81 @@
+package iris.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+/**
+ * Pops up completions above a text field while the user types. Suggestions are looked up once
+ * typing has paused briefly, on a background thread, so keystrokes are never held up by a lookup;
+ * suggestions for text that has changed in the meantime are dropped.
+ */
+public class Autocomplete {
+    // Typing pause after which suggestions are looked up
+    private static final Duration DEBOUNCE = Duration.millis(150);
+
+    private final TextField field;
+    private final Function<String, List<String>> lookup;
+    private final ContextMenu menu = new ContextMenu();
+    private final PauseTransition pause = new PauseTransition(DEBOUNCE);
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "iris-autocomplete");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Text of the field as of the last keystroke; lookups for older text are skipped
+    private volatile String latestText = "";
+
+    /**
+     * Starts suggesting completions for the given field.
+     *
+     * @param field  text field to complete
+     * @param lookup returns the completions of a text, best first; called off the FX thread
+     */
+    public Autocomplete(TextField field, Function<String, List<String>> lookup) {
+        this.field = field;
+        this.lookup = lookup;
+        field.textProperty().addListener((observable, oldText, newText) -> {
+            latestText = newText;
+            menu.hide();
+            pause.playFromStart();
+        });
+        pause.setOnFinished(event -> lookUp(field.getText()));
+    }
+
+    private void lookUp(String text) {
+        if (text.isBlank()) {
+            return;
+        }
+        CompletableFuture.supplyAsync(() -> text.equals(latestText) ? lookup.apply(text) : List.<String>of(), worker)
+                .thenAccept(suggestions -> Platform.runLater(() -> show(text, suggestions)));
+    }
+
+    private void show(String text, List<String> suggestions) {
+        if (suggestions.isEmpty() || !text.equals(field.getText())) {
+            return;
+        }
+        List<MenuItem> items = new ArrayList<>(suggestions.size());
+        for (String suggestion : suggestions) {
+            MenuItem item = new MenuItem(suggestion);
+            item.setMnemonicParsing(false);
+            item.setOnAction(event -> {
+                field.setText(suggestion);
+                field.positionCaret(suggestion.length());
+            });
+            items.add(item);
+        }
+        menu.getItems().setAll(items);
+        menu.show(field, Side.TOP, 0, 0);
+    }
+}
@@ -3,12 +3,10 @@ package iris.ui;
 import java.io.IOException;
 
 import iris.MainWindow;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import iris.metrics.DialogBoxEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -18,21 +16,25 @@ import javafx.scene.layout.HBox;
  * A dialog box for displaying text in the GUI.
  */
 public class DialogBox extends HBox {
+    private static final String USER_STYLE_CLASS = "user-label";
+
+    // Decoded once and shared by every dialog box
+    private static final Image USER_IMAGE = new Image(DialogBox.class.getResourceAsStream("/images/user.png"));
+    private static final Image ASSISTANT_IMAGE = new Image(DialogBox.class.getResourceAsStream("/images/iris.png"));
+
     @FXML
     private Label dialog;
 
     @FXML
     private ImageView displayPicture;
 
-    private Image userImage = new Image(this.getClass().getResourceAsStream("/images/user.png"));
-    private Image assistantImage = new Image(this.getClass().getResourceAsStream("/images/iris.png"));
-
     /**
-     * Constructor for DialogBox.
-     *
-     * @param text The text to be displayed in the dialog box.
+     * Creates an empty dialog box to be filled in with {@link #setMessage(Message)}.
+     * Loading its layout shows up as a {@link DialogBoxEvent} in flight recordings.
      */
-    public DialogBox(String text, boolean isUser) {
+    public DialogBox() {
+        DialogBoxEvent event = new DialogBoxEvent();
+        event.begin();
         try {
             FXMLLoader loader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
             loader.setController(this);
@@ -40,20 +42,30 @@ public class DialogBox extends HBox {
             loader.load();
         } catch (IOException exception) {
             exception.printStackTrace();
+        } finally {
+            event.commit();
         }
+    }
 
-        dialog.setText(text);
-
-        if (isUser) {
-            displayPicture.setImage(userImage);
+    /**
+     * Shows the given message, laid out on the side of its sender.
+     *
+     * @param message message to display
+     */
+    public void setMessage(Message message) {
+        dialog.setText(message.text());
+        if (message.isUser()) {
+            displayPicture.setImage(USER_IMAGE);
             this.setAlignment(Pos.TOP_RIGHT);
-            this.getChildren().get(0).getStyleClass().add("user-label");
+            if (!dialog.getStyleClass().contains(USER_STYLE_CLASS)) {
+                dialog.getStyleClass().add(USER_STYLE_CLASS);
+            }
+            this.getChildren().setAll(dialog, displayPicture);
         } else {
-            displayPicture.setImage(assistantImage);
+            displayPicture.setImage(ASSISTANT_IMAGE);
             this.setAlignment(Pos.TOP_LEFT);
-            ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-            FXCollections.reverse(tmp);
-            this.getChildren().setAll(tmp);
+            dialog.getStyleClass().remove(USER_STYLE_CLASS);
+            this.getChildren().setAll(displayPicture, dialog);
         }
     }
 }
@@ -0,0 +1,36 @@
+package iris.ui;
+
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+
+/**
+ * List cell that renders a transcript message with a single reused DialogBox.
+ * The list view only creates as many cells as fit on screen and recycles them while scrolling.
+ */
+public class DialogCell extends ListCell<Message> {
+    // Horizontal space reserved for the list view's scroll bar and insets
+    private static final double SCROLL_BAR_ALLOWANCE = 20;
+
+    private final DialogBox dialogBox = new DialogBox();
+
+    /**
+     * Creates a cell whose dialog box tracks the width of the given list view.
+     *
+     * @param listView list view the cell belongs to
+     */
+    public DialogCell(ListView<Message> listView) {
+        setPrefWidth(0);
+        dialogBox.prefWidthProperty().bind(listView.widthProperty().subtract(SCROLL_BAR_ALLOWANCE));
+    }
+
+    @Override
+    protected void updateItem(Message message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        dialogBox.setMessage(message);
+        setGraphic(dialogBox);
+    }
+}
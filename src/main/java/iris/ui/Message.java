@@ -0,0 +1,10 @@
+package iris.ui;
+
+/**
+ * A single entry of the conversation transcript.
+ *
+ * @param text   text of the message
+ * @param isUser whether the message was typed by the user
+ */
+public record Message(String text, boolean isUser) {
+}
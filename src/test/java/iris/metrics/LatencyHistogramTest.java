@@ -0,0 +1,38 @@
+package iris.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentile_withinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 1_000_000; nanos++) {
+            histogram.record(nanos);
+        }
+        assertEquals(1_000_000, histogram.count());
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            double expected = percentile / 100 * 1_000_000;
+            double actual = histogram.percentile(percentile);
+            assertTrue(Math.abs(actual - expected) / expected < 0.07, percentile + ": " + actual);
+        }
+        assertEquals(1_000_000, histogram.percentile(100));
+    }
+
+    @Test
+    public void testPercentile_empty() {
+        assertEquals(0, new LatencyHistogram().percentile(99));
+    }
+
+    @Test
+    public void testBucketOf_upperBoundCoversValue() {
+        for (long value : new long[] {0, 31, 32, 33, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(value <= LatencyHistogram.upperBoundOf(bucket));
+            assertTrue(bucket == 0 || value > LatencyHistogram.upperBoundOf(bucket - 1));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package iris.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class MetricsTest {
+
+    @Test
+    public void testLatency_sameHistogramForSameName() {
+        Metrics metrics = new Metrics();
+        assertSame(metrics.latency("list"), metrics.latency("list"));
+    }
+
+    @Test
+    public void testReport_onlyCommandsThatRan() {
+        Metrics metrics = new Metrics();
+        metrics.latency("list").record(2_000_000);
+        metrics.latency("find");
+        metrics.registerGauge("loaded tasks", () -> 42);
+        String report = metrics.report();
+        assertTrue(report.contains("list: 1 runs"), report);
+        assertFalse(report.contains("find"), report);
+        assertTrue(report.contains("loaded tasks: 42"), report);
+        assertTrue(report.contains("heap used (KiB): "), report);
+    }
+
+    @Test
+    public void testTransferStats_countsBytesAndFailures() {
+        TransferStats stats = new TransferStats();
+        stats.record(1_000_000, 500_000_000);
+        stats.record(1_000_000, 500_000_000);
+        stats.recordFailure();
+        assertEquals(2, stats.count());
+        assertEquals(2_000_000, stats.bytes());
+        assertEquals(1, stats.failures());
+        assertTrue(stats.summary().startsWith("1 failed, 2.000 MB at 2.0 MB/s, 2 done"), stats.summary());
+    }
+}
@@ -0,0 +1,50 @@
+package iris.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import iris.task.TaskList;
+import iris.task.Todo;
+
+public class BinaryFormatTest {
+
+    private static Path write(ByteBuffer image) throws IOException {
+        Path path = Files.createTempFile("iris-snapshot", ".txt");
+        Files.write(path, Arrays.copyOf(image.array(), image.limit()));
+        return path;
+    }
+
+    @Test
+    public void testDecode_corruptRecordCountIsContained() throws IOException {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("read book"));
+        taskList.add(new Todo("return book"));
+        ByteBuffer image = BinaryFormat.encode(taskList.snapshot());
+        image.putInt(BinaryFormat.HEADER_LENGTH, Integer.MAX_VALUE);
+        TaskLoader.Result result = TaskLoader.load(write(image));
+        assertEquals(0, result.tasks().size());
+        assertEquals(1, result.malformedSamples().size());
+    }
+
+    @Test
+    public void testDecode_corruptPayloadLengthFailsTheLoad() throws IOException {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < BinaryFormat.RECORDS_PER_BLOCK + 1; i++) {
+            taskList.add(new Todo("task " + i));
+        }
+        ByteBuffer image = BinaryFormat.encode(taskList.snapshot());
+        // Shortening the first block's length hides the second block behind bytes that are not a block header
+        int lengthOffset = BinaryFormat.HEADER_LENGTH + Integer.BYTES;
+        image.putInt(lengthOffset, image.getInt(lengthOffset) - 1);
+        Path path = write(image);
+        assertThrows(IOException.class, () -> TaskLoader.load(path));
+    }
+}
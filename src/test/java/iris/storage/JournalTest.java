@@ -0,0 +1,80 @@
+package iris.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import iris.metrics.TransferStats;
+import iris.task.Task;
+import iris.task.TaskList;
+import iris.task.Todo;
+
+public class JournalTest {
+
+    private static List<String> reload(Path snapshotPath) throws IOException {
+        Journal.recover(snapshotPath);
+        TaskList reloaded = new TaskList();
+        if (Files.exists(snapshotPath)) {
+            TaskLoader.load(snapshotPath).tasks().forEach(reloaded::add);
+        }
+        Journal.replay(snapshotPath, reloaded);
+        return reloaded.asList().stream().map(Task::getDescription).toList();
+    }
+
+    @Test
+    public void testCompact_afterFailedCompactionKeepsRotatedRecords() throws IOException {
+        Path snapshotPath = Files.createTempDirectory("iris-journal").resolve("tasks.txt");
+        TaskList taskList = new TaskList();
+        Journal journal = new Journal(snapshotPath, taskList, new TransferStats());
+        taskList.addListener(journal);
+        taskList.add(new Todo("read book"));
+        taskList.add(new Todo("return book"));
+        // A non-empty directory in place of the compacted file's temporary file makes every background compaction fail
+        Path compactedPath = Journal.compactedPathFor(snapshotPath);
+        Path blocker = Files.createDirectories(compactedPath.resolveSibling(compactedPath.getFileName() + ".tmp")
+                .resolve("blocker"));
+        journal.compact();
+        taskList.removeListener(journal);
+        journal.close();
+        assertTrue(Files.exists(Journal.oldJournalPathFor(snapshotPath)));
+
+        journal = new Journal(snapshotPath, taskList, new TransferStats());
+        taskList.addListener(journal);
+        taskList.add(new Todo("buy milk"));
+        journal.compact();
+        assertFalse(Files.exists(Journal.oldJournalPathFor(snapshotPath)));
+        taskList.remove(0);
+        taskList.removeListener(journal);
+        journal.close();
+        Files.delete(blocker);
+        Files.delete(blocker.getParent());
+        assertEquals(List.of("return book", "buy milk"), reload(snapshotPath));
+    }
+
+    @Test
+    public void testCheckpointNow_failedMoveKeepsLaterRecords() throws IOException {
+        Path snapshotPath = Files.createTempDirectory("iris-journal").resolve("tasks.txt");
+        TaskList taskList = new TaskList();
+        Journal journal = new Journal(snapshotPath, taskList, new TransferStats());
+        taskList.addListener(journal);
+        taskList.add(new Todo("read book"));
+        taskList.add(new Todo("return book"));
+        // A non-empty directory in place of the snapshot file makes moving the checkpoint into place fail
+        Path blocker = Files.createDirectories(snapshotPath.resolve("blocker"));
+        assertFalse(journal.checkpointNow("save"));
+
+        taskList.add(new Todo("buy milk"));
+        taskList.removeListener(journal);
+        journal.close();
+        Files.delete(blocker);
+        Files.delete(snapshotPath);
+        assertEquals(List.of("read book", "return book", "buy milk"), reload(snapshotPath));
+    }
+}
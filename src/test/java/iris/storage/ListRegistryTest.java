@@ -0,0 +1,163 @@
+package iris.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import iris.metrics.Metrics;
+import iris.task.Task;
+import iris.task.TaskList;
+import iris.task.TaskListener;
+import iris.task.Todo;
+
+public class ListRegistryTest {
+
+    // Every task added to a list of the registry waits for canFinish, after counting down isLoading
+    private static ListRegistry blockingRegistry(CountDownLatch isLoading, CountDownLatch canFinish) {
+        return new ListRegistry(() -> {
+            TaskList taskList = new TaskList();
+            taskList.addListener(new TaskListener() {
+                @Override
+                public void taskAdded(int index, Task task) {
+                    isLoading.countDown();
+                    try {
+                        canFinish.await();
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void taskRemoved(int index, Task task) {
+                }
+
+                @Override
+                public void taskUpdated(int index, Task task) {
+                }
+            });
+            return taskList;
+        }, 4, new Metrics());
+    }
+
+    @Test
+    public void testIsValidName_rejectsPaths() {
+        assertTrue(ListRegistry.isValidName("project-1_b"));
+        assertFalse(ListRegistry.isValidName("../data"));
+        assertFalse(ListRegistry.isValidName("a/b"));
+        assertFalse(ListRegistry.isValidName(""));
+    }
+
+    @Test
+    public void testAcquire_keepsListsInMemoryWithoutFile() {
+        ListRegistry registry = new ListRegistry(TaskList::new, 1, new Metrics());
+        StoredList work = registry.acquire("work");
+        work.getTaskList().add(new Todo("write report"));
+        registry.release(work);
+        registry.release(registry.acquire("home"));
+        assertSame(work, registry.acquire("work"));
+        assertEquals(1, work.getTaskList().size());
+        assertEquals(List.of(ListRegistry.DEFAULT_LIST, "home", "work"), registry.names());
+    }
+
+    @Test
+    public void testPeek_neitherLoadsNorCountsAsUse() throws IOException {
+        Path dataFile = Files.createTempDirectory("iris-registry").resolve("data.txt");
+        ListRegistry registry = new ListRegistry(TaskList::new, 2, new Metrics());
+        registry.attach(dataFile, percent -> { });
+        assertNull(registry.peek("work"));
+        assertFalse(registry.isLoaded("work"));
+
+        StoredList work = registry.acquire("work");
+        registry.release(work);
+        registry.release(registry.acquire(ListRegistry.DEFAULT_LIST));
+        assertSame(work, registry.peek("work"));
+        // Peeking leaves work the least recently used list, so it is the one evicted
+        registry.release(registry.acquire("home"));
+        assertNull(registry.peek("work"));
+        assertTrue(registry.isLoaded(ListRegistry.DEFAULT_LIST));
+    }
+
+    @Test
+    public void testAcquire_failedEvictionKeepsJournaling() throws IOException, InterruptedException {
+        Path dataFile = Files.createTempDirectory("iris-registry").resolve("data.txt");
+        ListRegistry registry = new ListRegistry(TaskList::new, 1, new Metrics());
+        registry.attach(dataFile, percent -> { });
+        StoredList work = registry.acquire("work");
+        work.getTaskList().add(new Todo("write report"));
+        registry.release(work);
+        // Directories in place of the temporary files make every save of the list fail
+        Path workFile = work.getPath();
+        Files.createDirectories(workFile.resolveSibling("work.txt.tmp"));
+        Files.createDirectories(workFile.resolveSibling("work.txt.checkpoint.tmp"));
+        registry.release(registry.acquire("home"));
+        assertTrue(registry.isLoaded("work"));
+
+        work.getTaskList().add(new Todo("review report"));
+        Path journalFile = Journal.journalPathFor(workFile);
+        for (int i = 0; i < 100 && !Files.readString(journalFile).contains("review report"); i++) {
+            Thread.sleep(Journal.FLUSH_INTERVAL_MS);
+        }
+        assertTrue(Files.readString(journalFile).contains("review report"));
+    }
+
+    @Test
+    public void testAcquire_slowLoadDoesNotBlockOtherLists() throws IOException, InterruptedException {
+        Path dataFile = Files.createTempDirectory("iris-registry").resolve("data.txt");
+        Path listsDirectory = Files.createDirectories(dataFile.resolveSibling(ListRegistry.LISTS_DIRECTORY));
+        Files.writeString(listsDirectory.resolve("big.txt"), "1|TODO|false|read book\n");
+        CountDownLatch isLoading = new CountDownLatch(1);
+        CountDownLatch canFinish = new CountDownLatch(1);
+        ListRegistry registry = blockingRegistry(isLoading, canFinish);
+        registry.attach(dataFile, percent -> { });
+        Thread loader = new Thread(() -> registry.release(registry.acquire("big")));
+        loader.start();
+        isLoading.await();
+        registry.release(registry.acquire("home"));
+        assertTrue(registry.isLoaded("big"));
+        assertEquals(List.of(ListRegistry.DEFAULT_LIST, "big", "home"), registry.names());
+        canFinish.countDown();
+        loader.join();
+        assertEquals(1, registry.acquire("big").getTaskList().size());
+    }
+
+    @Test
+    public void testAttach_slowDefaultListDoesNotBlockOtherLists() throws IOException, InterruptedException {
+        Path dataFile = Files.createTempDirectory("iris-registry").resolve("data.txt");
+        Files.writeString(dataFile, "1|TODO|false|read book\n");
+        CountDownLatch isLoading = new CountDownLatch(1);
+        CountDownLatch canFinish = new CountDownLatch(1);
+        ListRegistry registry = blockingRegistry(isLoading, canFinish);
+        Thread attacher = new Thread(() -> registry.attach(dataFile, percent -> { }));
+        attacher.start();
+        isLoading.await();
+        registry.release(registry.acquire("home"));
+        assertNull(registry.peek(ListRegistry.DEFAULT_LIST));
+        assertEquals(List.of(ListRegistry.DEFAULT_LIST, "home"), registry.names());
+        canFinish.countDown();
+        attacher.join();
+        assertEquals(1, registry.peek(ListRegistry.DEFAULT_LIST).getTaskList().size());
+    }
+
+    @Test
+    public void testNames_includesListsWithOnlyAJournal() throws IOException {
+        Path dataFile = Files.createTempDirectory("iris-registry").resolve("data.txt");
+        Path listsDirectory = Files.createDirectories(dataFile.resolveSibling(ListRegistry.LISTS_DIRECTORY));
+        Files.writeString(listsDirectory.resolve("home.txt"), "");
+        Files.writeString(Journal.journalPathFor(listsDirectory.resolve("work.txt")), "A|1|TODO|false|read book\n");
+        Files.writeString(listsDirectory.resolve("notes.txt.tmp"), "");
+        ListRegistry registry = new ListRegistry(TaskList::new, 4, new Metrics());
+        registry.attach(dataFile, percent -> { });
+        assertEquals(List.of(ListRegistry.DEFAULT_LIST, "home", "work"), registry.names());
+        assertEquals(1, registry.acquire("work").getTaskList().size());
+    }
+}
@@ -0,0 +1,55 @@
+package iris.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import iris.metrics.Metrics;
+import iris.task.Task;
+import iris.task.TaskList;
+import iris.task.Todo;
+
+public class StoredListTest {
+
+    @Test
+    public void testLoad_unreadableSnapshotIsNeverOverwritten() throws IOException {
+        Path path = Files.createTempDirectory("iris-list").resolve("tasks.txt");
+        byte[] future = ByteBuffer.allocate(BinaryFormat.HEADER_LENGTH)
+                .putInt(BinaryFormat.MAGIC).putInt(BinaryFormat.VERSION + 1).putLong(0).array();
+        Files.write(path, future);
+        StoredList list = new StoredList("default", new TaskList(), path, new Metrics());
+        assertTrue(list.load().startsWith("Error: Failed to load tasks from " + path));
+        list.startAutosave(0);
+        list.getTaskList().add(new Todo("read book"));
+        assertFalse(list.save());
+        assertArrayEquals(future, Files.readAllBytes(path));
+        assertFalse(Files.exists(Journal.journalPathFor(path)));
+    }
+
+    @Test
+    public void testLoad_idsOfDeletedTasksAreNotReused() throws IOException {
+        Path path = Files.createTempDirectory("iris-list").resolve("tasks.txt");
+        StoredList list = new StoredList("default", new TaskList(), path, new Metrics());
+        list.load();
+        list.getTaskList().add(new Todo("read book"));
+        Task deleted = new Todo("return book");
+        list.getTaskList().add(deleted);
+        list.getTaskList().remove(1);
+        assertTrue(list.save());
+
+        StoredList reloaded = new StoredList("default", new TaskList(), path, new Metrics());
+        reloaded.load();
+        Task added = new Todo("buy milk");
+        reloaded.getTaskList().add(added);
+        assertEquals(deleted.getId() + 1, added.getId());
+        reloaded.save();
+    }
+}
@@ -0,0 +1,61 @@
+package iris.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class CompletionTrieTest {
+
+    @Test
+    public void testComplete_heaviestFirstThenAlphabetical() {
+        CompletionTrie trie = new CompletionTrie();
+        trie.add("report");
+        trie.add("read");
+        trie.add("review");
+        trie.add("review");
+        trie.add("walk");
+        assertEquals(List.of("review", "read", "report"), trie.complete("re", 5));
+        assertEquals(List.of("review", "read"), trie.complete("re", 2));
+        assertEquals(List.of("report"), trie.complete("repo", 5));
+        assertEquals(List.of(), trie.complete("x", 5));
+    }
+
+    @Test
+    public void testComplete_prefixEndsInsideEdge() {
+        CompletionTrie trie = new CompletionTrie();
+        trie.add("assignment");
+        trie.add("assign");
+        assertEquals(List.of("assign", "assignment"), trie.complete("assi", 5));
+        assertEquals(List.of("assignment"), trie.complete("assignm", 5));
+        assertEquals(List.of(), trie.complete("assignx", 5));
+    }
+
+    @Test
+    public void testRemove_lastOccurrenceForgetsWord() {
+        CompletionTrie trie = new CompletionTrie();
+        trie.add("read");
+        trie.add("read");
+        trie.add("report");
+        trie.remove("read");
+        assertEquals(List.of("read", "report"), trie.complete("re", 5));
+        trie.remove("read");
+        assertEquals(List.of("report"), trie.complete("re", 5));
+        assertEquals(1, trie.size());
+        trie.remove("missing");
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    public void testCompleteWord_followsTaskList() {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("write report"));
+        taskList.add(new Todo("review report"));
+        taskList.add(new Todo("read book"));
+        assertEquals(List.of("report", "read", "review"), taskList.completeWord("re", 5));
+        taskList.remove(0);
+        taskList.remove(0);
+        assertEquals(List.of("read"), taskList.completeWord("re", 5));
+    }
+}
@@ -23,4 +23,25 @@ public class DeadlineTest {
             assertSame(TaskExceptionType.ARGUMENTS_MISSING, exception.exceptionType);
         }
     }
+
+    @Test
+    public void testSetDone_refreshesCachedLines() throws TaskException {
+        Deadline deadline = Deadline.generateDeadline("Project meeting /by 2024-06-15");
+        assertEquals("[D][ ] Project meeting (by: Jun 15 2024)", deadline.toString());
+        assertEquals("0|DEADLINE|false|Project meeting|Jun 15 2024", deadline.serialize());
+        deadline.setDone(true);
+        assertEquals("[D][X] Project meeting (by: Jun 15 2024)", deadline.toString());
+        assertEquals("0|DEADLINE|true|Project meeting|Jun 15 2024", deadline.serialize());
+    }
+
+    @Test
+    public void testSerializeWithoutId_roundTripsWithoutId() throws TaskException {
+        TaskList taskList = new TaskList();
+        taskList.add(Deadline.generateDeadline("Project meeting /by 2024-06-15"));
+        Task deadline = taskList.get(0);
+        assertEquals("DEADLINE|false|Project meeting|Jun 15 2024", deadline.serializeWithoutId());
+        Task parsed = Task.deserialize(deadline.serializeWithoutId());
+        assertEquals(deadline.toString(), parsed.toString());
+        assertEquals(0, parsed.getId());
+    }
 }
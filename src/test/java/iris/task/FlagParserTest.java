@@ -0,0 +1,42 @@
+package iris.task;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+
+public class FlagParserTest {
+    private final FlagParser parser = new FlagParser(Task.FLAG_FROM, Task.FLAG_TO);
+
+    @Test
+    public void testParse_success() throws TaskException {
+        assertArrayEquals(new String[]{"meeting", "2024-06-15", "2024-06-18"},
+                parser.parse("  meeting /to 2024-06-18 /from 2024-06-15 "));
+    }
+
+    @Test
+    public void testParse_flagCapturedAsValue() throws TaskException {
+        assertArrayEquals(new String[]{"meeting", "/to", "x"}, parser.parse("meeting /from/to/to x"));
+    }
+
+    @Test
+    public void testParse_strayText() {
+        assertParseFails("meeting /from 2024-06-15 /to/to stray", TaskExceptionType.UNRECOGNIZED_ARGUMENT);
+    }
+
+    @Test
+    public void testParse_missingFlag() {
+        assertParseFails("meeting /from 2024-06-15 /to", TaskExceptionType.ARGUMENTS_MISSING);
+        assertParseFails(null, TaskExceptionType.NO_ARGUMENTS_PROVIDED);
+    }
+
+    private void assertParseFails(String argument, TaskExceptionType expected) {
+        try {
+            parser.parse(argument);
+            fail();
+        } catch (TaskException exception) {
+            assertSame(expected, exception.exceptionType);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package iris.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskCodecTest {
+
+    @Test
+    public void testEncode_roundTripsAllTypes() {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("read book"));
+        taskList.add(new Deadline("report", LocalDate.of(1899, 12, 31)));
+        taskList.add(new Event("fair | expo", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 3)));
+        taskList.add(new DoAfter("café", LocalDate.of(2024, 7, 2)));
+        taskList.setDone(2, true);
+        List<Task> tasks = taskList.asList();
+        ByteBuffer buffer = ByteBuffer.allocate(tasks.stream().mapToInt(TaskCodec::maxEncodedLength).sum());
+        tasks.forEach(task -> TaskCodec.encode(task, buffer));
+        buffer.flip();
+        for (Task task : tasks) {
+            assertEquals(task.serialize(), TaskCodec.decode(buffer).serialize());
+        }
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void testDeserialize_descriptionWithSeparator() {
+        Todo todo = new Todo("a|b \\ c");
+        Task restored = Task.deserialize(todo.serialize());
+        assertEquals("a|b \\ c", restored.getDescription());
+    }
+}
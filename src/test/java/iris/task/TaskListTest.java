@@ -0,0 +1,197 @@
+package iris.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskListTest {
+
+    private static TaskList makeTaskList(String... descriptions) {
+        TaskList taskList = new TaskList();
+        for (String description : descriptions) {
+            taskList.add(new Todo(description));
+        }
+        return taskList;
+    }
+
+    // Positions of every task containing the keyword as typed, in list order
+    private static List<Integer> findContaining(TaskList taskList, String keyword) {
+        return taskList.search(new TaskQuery(List.of(keyword), false, true), Integer.MAX_VALUE).stream()
+                .sorted()
+                .toList();
+    }
+
+    @Test
+    public void testSearch_matchesSubstrings() {
+        TaskList taskList = makeTaskList("read book", "notebook shopping", "return library book", "run");
+        assertEquals(List.of(0, 1, 2), findContaining(taskList, "book"));
+        assertEquals(List.of(1), findContaining(taskList, "shop"));
+        assertEquals(List.of(0, 2, 3), findContaining(taskList, "r"));
+    }
+
+    @Test
+    public void testSearch_afterRemoval() {
+        TaskList taskList = makeTaskList("read book", "notebook shopping", "return library book");
+        taskList.remove(0);
+        assertEquals(List.of(0, 1), findContaining(taskList, "book"));
+        assertEquals(List.of(), findContaining(taskList, "read"));
+    }
+
+    @Test
+    public void testFindWord_matchesWholeTokensOnly() {
+        TaskList taskList = makeTaskList("read book", "notebook shopping", "return library book");
+        assertEquals(List.of(0, 2), taskList.findWord("book"));
+    }
+
+    @Test
+    public void testSearch_ranksByMatchQuality() {
+        TaskList taskList = makeTaskList("notebook", "Book club", "bookshelf", "read a book", "run");
+        TaskQuery query = new TaskQuery(List.of("book"), false, false);
+        assertEquals(List.of(1, 3, 2, 0), taskList.search(query, Integer.MAX_VALUE));
+        assertEquals(List.of(1, 3), taskList.search(query, 2));
+        assertEquals(List.of(1), taskList.search(new TaskQuery(List.of("Book"), false, true), 5));
+    }
+
+    @Test
+    public void testSearch_allOrAnyKeyword() {
+        TaskList taskList = makeTaskList("read book", "book read", "read", "book", "walk");
+        List<String> keywords = List.of("read", "book");
+        assertEquals(List.of(0, 1), taskList.search(new TaskQuery(keywords, false, false), 5));
+        assertEquals(List.of(0, 1, 2, 3), taskList.search(new TaskQuery(keywords, true, false), 5));
+        assertEquals(List.of(1, 0), taskList.search(new TaskQuery(List.of("book", "read"), false, false), 5));
+    }
+
+    @Test
+    public void testFindBetween_matchesOverlappingRanges() {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("undated"));
+        taskList.add(new Deadline("report", LocalDate.of(2024, 6, 10)));
+        taskList.add(new Event("conference", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30)));
+        taskList.add(new DoAfter("renew", LocalDate.of(2024, 7, 2)));
+        assertEquals(List.of(1, 2), taskList.findBetween(LocalDate.of(2024, 6, 5), LocalDate.of(2024, 6, 15)));
+        assertEquals(List.of(2), taskList.findDue(LocalDate.of(2024, 6, 30)));
+        assertEquals(List.of(1), taskList.findOverdue(LocalDate.of(2024, 7, 1)));
+    }
+
+    @Test
+    public void testFindSorted_followsChanges() {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("laundry"));
+        taskList.add(new Deadline("report", LocalDate.of(2024, 6, 10)));
+        taskList.add(new Event("conference", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 3)));
+        taskList.add(new DoAfter("renew", LocalDate.of(2024, 7, 2)));
+        assertEquals(List.of(2, 1, 3, 0), taskList.findSorted(TaskOrder.DATE, 0, 10));
+        assertEquals(List.of(1, 3), taskList.findSorted(TaskOrder.DATE, 1, 2));
+        taskList.add(new Deadline("taxes", LocalDate.of(2024, 5, 1)));
+        taskList.remove(2);
+        assertEquals(List.of(3, 1, 2, 0), taskList.findSorted(TaskOrder.DATE, 0, 10));
+        assertEquals(List.of(0, 1, 3, 2), taskList.findSorted(TaskOrder.TYPE, 0, 10));
+    }
+
+    @Test
+    public void testFindSorted_doneLast() {
+        TaskList taskList = makeTaskList("a", "b", "c");
+        assertEquals(List.of(0, 1, 2), taskList.findSorted(TaskOrder.DONE, 0, 10));
+        taskList.setDone(0, true);
+        taskList.setDone(0, true);
+        assertEquals(List.of(1, 2, 0), taskList.findSorted(TaskOrder.DONE, 0, 10));
+        taskList.setDone(0, false);
+        assertEquals(List.of(0, 1, 2), taskList.findSorted(TaskOrder.DONE, 0, 10));
+        assertEquals(List.of(), taskList.findSorted(TaskOrder.DONE, 3, 10));
+    }
+
+    @Test
+    public void testFindOverdue_followsMarking() {
+        TaskList taskList = new TaskList();
+        taskList.add(new Deadline("report", LocalDate.of(2024, 6, 10)));
+        taskList.add(new Event("conference", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 3)));
+        taskList.add(new Deadline("taxes", LocalDate.of(2024, 5, 1)));
+        taskList.add(new Deadline("renewal", LocalDate.of(2024, 7, 1)));
+        LocalDate today = LocalDate.of(2024, 7, 1);
+        assertEquals(List.of(0, 2), taskList.findOverdue(today));
+        taskList.setDone(2, true);
+        assertEquals(List.of(0), taskList.findOverdue(today));
+        taskList.setDone(2, false);
+        taskList.remove(0);
+        assertEquals(List.of(1), taskList.findOverdue(today));
+    }
+
+    @Test
+    public void testRemoveAll_compactsInOnePass() {
+        TaskList taskList = makeTaskList("a book", "b", "c book", "d", "e book");
+        BitSet selection = new BitSet();
+        selection.set(1, 4);
+        assertEquals(3, taskList.removeAll(selection));
+        assertEquals(2, taskList.size());
+        assertEquals("e book", taskList.get(1).getDescription());
+        assertEquals(List.of(0, 1), findContaining(taskList, "book"));
+    }
+
+    @Test
+    public void testPositionOfId_stableAcrossRemovals() {
+        TaskList taskList = makeTaskList("a", "b", "c", "d");
+        long idOfD = taskList.get(3).getId();
+        taskList.remove(1);
+        taskList.remove(0);
+        assertEquals(1, taskList.positionOfId(idOfD));
+        assertEquals("d", taskList.getById(idOfD).getDescription());
+        assertEquals(-1, taskList.positionOfId(taskList.size() + 100));
+    }
+
+    @Test
+    public void testColumnar_matchesObjectStore() {
+        TaskList columnar = TaskList.columnar();
+        TaskList objects = new TaskList();
+        for (TaskList taskList : List.of(columnar, objects)) {
+            taskList.add(new Todo("read book"));
+            taskList.add(new Deadline("return book", LocalDate.of(2024, 6, 10)));
+            taskList.add(new Event("fair", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 3)));
+            taskList.add(new DoAfter("read book", LocalDate.of(2024, 7, 2)));
+            taskList.setDone(1, true);
+            taskList.remove(0);
+        }
+        assertEquals(objects.size(), columnar.size());
+        for (int i = 0; i < objects.size(); i++) {
+            assertEquals(objects.get(i).serialize(), columnar.get(i).serialize());
+            assertEquals(objects.get(i).toString(), columnar.get(i).toString());
+        }
+        assertEquals(findContaining(objects, "book"), findContaining(columnar, "book"));
+        assertEquals(List.of(), columnar.findOverdue(LocalDate.of(2024, 7, 1)));
+    }
+
+    @Test
+    public void testConcurrentUpdates_areNotLost() throws InterruptedException {
+        TaskList taskList = makeTaskList("read book");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    taskList.add(new Todo("book " + i));
+                    taskList.update(list -> list.remove(list.size() - 1));
+                    taskList.add(new Todo("book " + i));
+                    findContaining(taskList, "book");
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Task task : taskList) {
+            ids.add(task.getId());
+        }
+        assertEquals(4001, taskList.size());
+        assertEquals(4001, ids.size());
+        assertEquals(4001, findContaining(taskList, "book").size());
+    }
+}